@@ -0,0 +1,110 @@
+package nl.han.ica.benchmarks;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.*;
+import nl.han.ica.icss.ast.literals.*;
+import nl.han.ica.icss.generator.Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams 1000 rules with 4 declarations each into a sink that discards them, so the output buffer is reused and
+ * gc.alloc.rate.norm (GC profiler, the default in the benchmark profile) divided by DECLARATIONS is what formatting
+ * allocates per declaration. legacyGenerate formats the way the Generator did before it appended numbers and
+ * indentation directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+    private static final int RULES = 1000;
+    public static final int DECLARATIONS = RULES * 4;
+
+    private AST ast;
+    private Generator generator;
+    private final StringBuilder buffer = new StringBuilder(8192);
+    private final Appendable sink = new Appendable() {
+        @Override
+        public Appendable append(CharSequence chunk) {
+            length += chunk.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence chunk, int start, int end) {
+            length += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            length++;
+            return this;
+        }
+    };
+    private long length;
+
+    @Setup
+    public void setUp() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < RULES; i++) {
+            input.append("#id").append(i).append(" { width: ").append(i).append("px; height: ").append(i * 7)
+                    .append("px; color: #").append(String.format("%06x", i * 4099)).append("; background-color: #ffffff; }\n");
+        }
+        Pipeline pipeline = new Pipeline();
+        pipeline.parseString(input.toString());
+        pipeline.check();
+        pipeline.transform();
+        ast = pipeline.getAST();
+        generator = new Generator();
+    }
+
+    @Benchmark
+    public long generate() throws IOException {
+        length = 0;
+        generator.generate(ast, sink);
+        return length;
+    }
+
+    @Benchmark
+    public long legacyGenerate() throws IOException {
+        length = 0;
+        StringBuilder css = buffer;
+        for (int i = 0; i < ast.root.body.size(); i++) {
+            Stylerule rule = (Stylerule) ast.root.body.get(i);
+            css.append("  ".repeat(0));
+            for (Selector selector : rule.selectors) {
+                css.append(selector.toString());
+            }
+            css.append(" {\n");
+            for (ASTNode statement : rule.body) {
+                Declaration declaration = (Declaration) statement;
+                css.append("  ".repeat(1)).append(declaration.property.name).append(": ");
+                css.append(legacyExpressionToString(declaration.expression));
+                css.append(";\n");
+            }
+            css.append("  ".repeat(0)).append("}\n");
+            if (css.length() >= 8192) {
+                sink.append(css);
+                css.setLength(0);
+            }
+        }
+        sink.append(css);
+        css.setLength(0);
+        return length;
+    }
+
+    private static String legacyExpressionToString(Expression expression) {
+        if (expression instanceof PixelLiteral) {
+            return ((PixelLiteral) expression).value + "px";
+        } else if (expression instanceof ColorLiteral) {
+            return ((ColorLiteral) expression).value;
+        }
+        return String.valueOf(expression);
+    }
+}
@@ -0,0 +1,85 @@
+package nl.han.ica.benchmarks;
+
+import nl.han.ica.HANLinkedList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Head operations should cost the same at every size, index operations grow linearly.
+ * java.util.LinkedList and ArrayDeque are the baselines.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HANLinkedListBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    int size;
+
+    private HANLinkedList<Integer> hanList;
+    private LinkedList<Integer> javaList;
+    private ArrayDeque<Integer> deque;
+    private final Integer value = 42;
+
+    @Setup
+    public void setUp() {
+        hanList = new HANLinkedList<>();
+        javaList = new LinkedList<>();
+        deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            hanList.addFirst(i);
+            javaList.addFirst(i);
+            deque.addFirst(i);
+        }
+    }
+
+    @Benchmark
+    public Integer hanAddFirstRemoveFirst() {
+        hanList.addFirst(value);
+        Integer first = hanList.getFirst();
+        hanList.removeFirst();
+        return first;
+    }
+
+    @Benchmark
+    public Integer javaLinkedListAddFirstRemoveFirst() {
+        javaList.addFirst(value);
+        return javaList.removeFirst();
+    }
+
+    @Benchmark
+    public Integer arrayDequeAddFirstRemoveFirst() {
+        deque.addFirst(value);
+        return deque.removeFirst();
+    }
+
+    @Benchmark
+    public Integer hanGetMiddle() {
+        return hanList.get(size / 2);
+    }
+
+    @Benchmark
+    public Integer javaLinkedListGetMiddle() {
+        return javaList.get(size / 2);
+    }
+
+    @Benchmark
+    public int hanInsertDeleteMiddle() {
+        hanList.insert(size / 2, value);
+        hanList.delete(size / 2);
+        return hanList.getSize();
+    }
+
+    @Benchmark
+    public int javaLinkedListInsertDeleteMiddle() {
+        javaList.add(size / 2, value);
+        javaList.remove(size / 2);
+        return javaList.size();
+    }
+}
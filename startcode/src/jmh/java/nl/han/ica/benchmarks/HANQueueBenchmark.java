@@ -0,0 +1,68 @@
+package nl.han.ica.benchmarks;
+
+import nl.han.ica.HANArrayQueue;
+import nl.han.ica.HANConcurrentQueue;
+import nl.han.ica.HANQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enqueue/dequeue on a queue that already holds size elements.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HANQueueBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    int size;
+
+    private HANQueue<Integer> linkedQueue;
+    private HANArrayQueue<Integer> arrayQueue;
+    private HANConcurrentQueue<Integer> concurrentQueue;
+    private ArrayDeque<Integer> deque;
+    private final Integer value = 42;
+
+    @Setup
+    public void setUp() {
+        linkedQueue = new HANQueue<>();
+        arrayQueue = new HANArrayQueue<>();
+        concurrentQueue = new HANConcurrentQueue<>();
+        deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            linkedQueue.enqueue(i);
+            arrayQueue.enqueue(i);
+            concurrentQueue.enqueue(i);
+            deque.addLast(i);
+        }
+    }
+
+    @Benchmark
+    public Integer hanQueueEnqueueDequeue() {
+        linkedQueue.enqueue(value);
+        return linkedQueue.dequeue();
+    }
+
+    @Benchmark
+    public Integer hanArrayQueueEnqueueDequeue() {
+        arrayQueue.enqueue(value);
+        return arrayQueue.dequeue();
+    }
+
+    @Benchmark
+    public Integer hanConcurrentQueueEnqueueDequeue() {
+        concurrentQueue.enqueue(value);
+        return concurrentQueue.dequeue();
+    }
+
+    @Benchmark
+    public Integer arrayDequeEnqueueDequeue() {
+        deque.addLast(value);
+        return deque.pollFirst();
+    }
+}
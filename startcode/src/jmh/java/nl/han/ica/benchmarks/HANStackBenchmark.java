@@ -0,0 +1,58 @@
+package nl.han.ica.benchmarks;
+
+import nl.han.ica.HANIntStack;
+import nl.han.ica.HANStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push/pop on a stack that already holds size elements; the cost must not grow with size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HANStackBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    int size;
+
+    private HANStack<Integer> hanStack;
+    private HANIntStack intStack;
+    private ArrayDeque<Integer> deque;
+    private final Integer value = 42;
+
+    @Setup
+    public void setUp() {
+        hanStack = new HANStack<>();
+        intStack = new HANIntStack();
+        deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            hanStack.push(i);
+            intStack.push(i);
+            deque.push(i);
+        }
+    }
+
+    @Benchmark
+    public Integer hanStackPushPop() {
+        hanStack.push(value);
+        return hanStack.pop();
+    }
+
+    @Benchmark
+    public int hanIntStackPushPop() {
+        intStack.push(42);
+        return intStack.pop();
+    }
+
+    @Benchmark
+    public Integer arrayDequePushPop() {
+        deque.push(value);
+        return deque.pop();
+    }
+}
@@ -0,0 +1,64 @@
+package nl.han.ica.benchmarks;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.AST;
+import nl.han.ica.icss.generator.Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates 100k evaluated rules sequentially and in parallel. The parallel run is started from a pool with
+ * the given number of threads, so its fork/join tasks run there and the scores show how generation scales.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelGeneratorBenchmark {
+    private static final int RULES = 100_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private AST ast;
+    private Generator sequential;
+    private Generator parallel;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        StringBuilder input = new StringBuilder("W := 10px; C := #00ff00;\n");
+        for (int i = 0; i < RULES; i++) {
+            input.append("#id").append(i).append(" { width: W + ").append(i).append("px; height: ").append(i % 97)
+                    .append("px * 3; color: C; background-color: #ffffff; }\n");
+        }
+        Pipeline pipeline = new Pipeline();
+        pipeline.parseString(input.toString());
+        pipeline.check();
+        pipeline.transform();
+        ast = pipeline.getAST();
+        sequential = new Generator();
+        parallel = new Generator();
+        parallel.setParallel(true);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String sequential() {
+        return sequential.generate(ast);
+    }
+
+    @Benchmark
+    public String parallel() {
+        return pool.submit(() -> parallel.generate(ast)).join();
+    }
+}
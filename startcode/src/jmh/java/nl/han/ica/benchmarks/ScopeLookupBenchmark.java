@@ -0,0 +1,92 @@
+package nl.han.ica.benchmarks;
+
+import nl.han.ica.HANLinkedList;
+import nl.han.ica.HANPersistentScope;
+import nl.han.ica.HANSymbolTable;
+import nl.han.ica.datastructures.IHANScope;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100k variables spread over 50 nested scopes. Looks up names from the innermost scope,
+ * so the old scope chain has to probe up to 50 maps where the symbol table probes one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScopeLookupBenchmark {
+    private static final int VARIABLES = 100_000;
+    private static final int DEPTH = 50;
+
+    private HANLinkedList<HashMap<String, Integer>> scopeChain;
+    private HANSymbolTable<Integer> symbolTable;
+    private IHANScope<String, Integer> persistentScope;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        scopeChain = new HANLinkedList<>();
+        symbolTable = new HANSymbolTable<>();
+        persistentScope = new HANPersistentScope<>();
+        names = new String[VARIABLES];
+        int perScope = VARIABLES / DEPTH;
+        for (int depth = 0; depth < DEPTH; depth++) {
+            scopeChain.addFirst(new HashMap<>());
+            if (depth > 0) {
+                symbolTable.enterScope();
+                persistentScope = persistentScope.enter();
+            }
+            for (int i = 0; i < perScope; i++) {
+                int index = depth * perScope + i;
+                String name = ("Var" + index).intern();
+                names[index] = name;
+                scopeChain.getFirst().put(name, index);
+                symbolTable.define(name, index);
+                persistentScope = persistentScope.define(name, index);
+            }
+        }
+    }
+
+    private String nextName() {
+        String name = names[next];
+        next = next + 1 == VARIABLES ? 0 : next + 1;
+        return name;
+    }
+
+    @Benchmark
+    public Integer scopeChainLookup() {
+        String name = nextName();
+        for (HashMap<String, Integer> scope : scopeChain) {
+            Integer value = scope.get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Integer symbolTableLookup() {
+        return symbolTable.lookup(nextName());
+    }
+
+    @Benchmark
+    public Integer persistentScopeLookup() {
+        return persistentScope.lookup(nextName());
+    }
+
+    @Benchmark
+    public int symbolTableEnterDefineExit() {
+        symbolTable.enterScope();
+        symbolTable.define(nextName(), 0);
+        int depth = symbolTable.getDepth();
+        symbolTable.exitScope();
+        return depth;
+    }
+}
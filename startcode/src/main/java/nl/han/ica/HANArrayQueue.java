@@ -0,0 +1,128 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANQueue;
+
+/**
+ * Queue backed by a circular array (ring buffer). Enqueue and dequeue are amortized O(1).
+ * An unbounded queue doubles its capacity (always a power of two) when full,
+ * a bounded queue rejects new values instead.
+ */
+public class HANArrayQueue<T> implements IHANQueue<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int head;
+    private int size;
+    private final boolean bounded;
+
+    /**
+     * Creates an unbounded queue that grows when needed
+     */
+    public HANArrayQueue() {
+        elements = new Object[DEFAULT_CAPACITY];
+        bounded = false;
+    }
+
+    /**
+     * Creates a bounded queue that never holds more than capacity values
+     * @param capacity the maximum number of values in the queue
+     */
+    public HANArrayQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        elements = new Object[capacity];
+        bounded = true;
+    }
+
+    @Override
+    public void enqueue(T value) {
+        if (!offer(value)) {
+            throw new IllegalStateException("The queue is full.");
+        }
+    }
+
+    /**
+     * Adds value T to the back of the queue if there is room for it
+     * @param value value to add
+     * @return true when added, false when the bounded queue is full
+     */
+    public boolean offer(T value) {
+        if (size == elements.length) {
+            if (bounded) {
+                return false;
+            }
+            grow();
+        }
+        elements[index(size)] = value;
+        size++;
+        return true;
+    }
+
+    @Override
+    public T dequeue() {
+        if (size == 0) {
+            return null;
+        }
+        T value = elementAt(head);
+        elements[head] = null;
+        head = index(1);
+        size--;
+        return value;
+    }
+
+    @Override
+    public T peek() {
+        if (size == 0) {
+            return null;
+        }
+        return elementAt(head);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[index(i)] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of values the queue can hold without growing
+     * @return current capacity
+     */
+    public int getCapacity() {
+        return elements.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int i) {
+        return (T) elements[i];
+    }
+
+    private int index(int offset) {
+        int i = head + offset;
+        // offset never exceeds the capacity, so one subtraction wraps around
+        return i < elements.length ? i : i - elements.length;
+    }
+
+    private void grow() {
+        Object[] grown = new Object[elements.length << 1];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, head);
+        elements = grown;
+        head = 0;
+    }
+}
@@ -0,0 +1,196 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANQueue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded thread-safe queue with backpressure: producers block while the queue is full,
+ * consumers can block with take() until a value arrives.
+ */
+public class HANBlockingQueue<T> implements IHANQueue<T> {
+    private final Object[] elements;
+    private int head;
+    private int size;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    public HANBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        elements = new Object[capacity];
+    }
+
+    /**
+     * Adds value T to the back of the queue, waits while the queue is full
+     * @param value value to add
+     * @throws IllegalStateException when the waiting thread is interrupted
+     */
+    @Override
+    public void enqueue(T value) {
+        try {
+            put(value);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the queue.", e);
+        }
+    }
+
+    /**
+     * Adds value T to the back of the queue, waits while the queue is full
+     * @param value value to add
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public void put(T value) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == elements.length) {
+                notFull.await();
+            }
+            insert(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds value T to the back of the queue if there is room for it, never waits
+     * @param value value to add
+     * @return true when added, false when the queue is full
+     */
+    public boolean offer(T value) {
+        lock.lock();
+        try {
+            if (size == elements.length) {
+                return false;
+            }
+            insert(value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds value T to the back of the queue, waits at most timeout for room
+     * @param value value to add
+     * @param timeout how long to wait
+     * @param unit unit of timeout
+     * @return true when added, false when the queue stayed full
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == elements.length) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insert(value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dequeues value at the front of the queue without waiting
+     * @return value T at the front of the queue, null when empty
+     */
+    @Override
+    public T dequeue() {
+        lock.lock();
+        try {
+            return size == 0 ? null : extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dequeues value at the front of the queue, waits while the queue is empty
+     * @return value T at the front of the queue
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        lock.lock();
+        try {
+            return size == 0 ? null : (T) elements[head];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                elements[index(i)] = null;
+            }
+            head = 0;
+            size = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public int getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void insert(T value) {
+        elements[index(size)] = value;
+        size++;
+        notEmpty.signal();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T extract() {
+        T value = (T) elements[head];
+        elements[head] = null;
+        head = index(1);
+        size--;
+        notFull.signal();
+        return value;
+    }
+
+    private int index(int offset) {
+        int i = head + offset;
+        return i < elements.length ? i : i - elements.length;
+    }
+}
@@ -0,0 +1,105 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANQueue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free multi-producer/multi-consumer queue (Michael & Scott).
+ * Head always points at a dummy node, the first value lives in head.next.
+ * Threads that find the tail lagging behind help to swing it forward.
+ */
+public class HANConcurrentQueue<T> implements IHANQueue<T> {
+    private final AtomicReference<Node<T>> head;
+    private final AtomicReference<Node<T>> tail;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private static class Node<T> {
+        final T data;
+        final AtomicReference<Node<T>> next = new AtomicReference<>();
+
+        Node(T data) {
+            this.data = data;
+        }
+    }
+
+    public HANConcurrentQueue() {
+        Node<T> dummy = new Node<>(null);
+        head = new AtomicReference<>(dummy);
+        tail = new AtomicReference<>(dummy);
+    }
+
+    @Override
+    public void enqueue(T value) {
+        if (value == null) {
+            // null is what dequeue returns for an empty queue
+            throw new NullPointerException("The queue does not accept null values.");
+        }
+        Node<T> newNode = new Node<>(value);
+        while (true) {
+            Node<T> last = tail.get();
+            Node<T> next = last.next.get();
+            if (last != tail.get()) {
+                continue;
+            }
+            if (next == null) {
+                if (last.next.compareAndSet(null, newNode)) {
+                    tail.compareAndSet(last, newNode);
+                    size.incrementAndGet();
+                    return;
+                }
+            } else {
+                tail.compareAndSet(last, next);
+            }
+        }
+    }
+
+    @Override
+    public T dequeue() {
+        while (true) {
+            Node<T> first = head.get();
+            Node<T> last = tail.get();
+            Node<T> next = first.next.get();
+            if (first != head.get()) {
+                continue;
+            }
+            if (next == null) {
+                return null;
+            }
+            if (first == last) {
+                tail.compareAndSet(last, next);
+            } else if (head.compareAndSet(first, next)) {
+                size.decrementAndGet();
+                return next.data;
+            }
+        }
+    }
+
+    @Override
+    public T peek() {
+        Node<T> next = head.get().next.get();
+        return next == null ? null : next.data;
+    }
+
+    @Override
+    public void clear() {
+        while (dequeue() != null) {
+            // drain
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return head.get().next.get() == null;
+    }
+
+    /**
+     * Size of queue. While other threads are modifying the queue this is only an estimate
+     * @return the number of items in queue
+     */
+    @Override
+    public int getSize() {
+        return Math.max(0, size.get());
+    }
+}
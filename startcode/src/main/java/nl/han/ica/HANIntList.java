@@ -0,0 +1,79 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANIntList;
+
+import java.util.Arrays;
+
+/**
+ * List of primitive ints on a growable array, no boxing on any operation.
+ */
+public class HANIntList implements IHANIntList {
+    private int[] values;
+    private int size;
+
+    public HANIntList() {
+        this(16);
+    }
+
+    public HANIntList(int initialCapacity) {
+        values = new int[Math.max(1, initialCapacity)];
+    }
+
+    @Override
+    public void add(int value) {
+        ensureCapacity();
+        values[size++] = value;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public void insert(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity();
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    @Override
+    public void delete(int pos) {
+        checkIndex(pos);
+        System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+        size--;
+    }
+
+    @Override
+    public int get(int pos) {
+        checkIndex(pos);
+        return values[pos];
+    }
+
+    @Override
+    public void set(int pos, int value) {
+        checkIndex(pos);
+        values[pos] = value;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    private void checkIndex(int pos) {
+        if (pos < 0 || pos >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+    }
+}
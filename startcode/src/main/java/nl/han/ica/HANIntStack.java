@@ -0,0 +1,62 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANIntStack;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Stack of primitive ints on a growable array. Push, pop and peek never allocate
+ * once the array is large enough.
+ */
+public class HANIntStack implements IHANIntStack {
+    private int[] values;
+    private int size;
+
+    public HANIntStack() {
+        this(16);
+    }
+
+    public HANIntStack(int initialCapacity) {
+        values = new int[Math.max(1, initialCapacity)];
+    }
+
+    @Override
+    public void push(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    @Override
+    public int pop() {
+        if (size == 0) {
+            throw new NoSuchElementException("The stack is empty.");
+        }
+        return values[--size];
+    }
+
+    @Override
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("The stack is empty.");
+        }
+        return values[size - 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+}
@@ -1,12 +1,19 @@
 package nl.han.ica;
 import nl.han.ica.datastructures.IHANLinkedList;
 
-import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 public class HANLinkedList<T> implements IHANLinkedList<T> {
-    private ArrayList<Node> nodes;
+    // head and tail make addFirst, removeFirst, getFirst and addLast O(1)
+    private Node head;
+    private Node tail;
+    private int size;
+    // bumped on every structural change so iterators can fail fast
+    private int modCount;
 
     private class Node {
         T data;
@@ -18,91 +25,242 @@ public class HANLinkedList<T> implements IHANLinkedList<T> {
     }
 
     public HANLinkedList() {
-        nodes = new ArrayList<>();
+        clear();
     }
 
     @Override
     public void addFirst(T value) {
         Node newNode = new Node(value);
-        if (!nodes.isEmpty()) {
-            newNode.next = nodes.get(0);
+        newNode.next = head;
+        head = newNode;
+        if (tail == null) {
+            tail = newNode;
         }
-        nodes.add(0, newNode);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Adds value to the back of the list in O(1) time
+     * @param value generic value to be added
+     */
+    public void addLast(T value) {
+        Node newNode = new Node(value);
+        if (tail == null) {
+            head = newNode;
+        } else {
+            tail.next = newNode;
+        }
+        tail = newNode;
+        size++;
+        modCount++;
     }
 
     @Override
     public void clear() {
-        nodes.clear();
+        head = null;
+        tail = null;
+        size = 0;
+        modCount++;
     }
 
     @Override
     public void insert(int index, T value) {
-        if (index < 0 || index > nodes.size()) {
+        if (index < 0 || index > size) {
             throw new IndexOutOfBoundsException();
         }
-        Node newNode = new Node(value);
-        if (index < nodes.size()) {
-            newNode.next = nodes.get(index);
+        if (index == 0) {
+            addFirst(value);
+        } else if (index == size) {
+            addLast(value);
+        } else {
+            Node previous = nodeAt(index - 1);
+            Node newNode = new Node(value);
+            newNode.next = previous.next;
+            previous.next = newNode;
+            size++;
+            modCount++;
         }
-        nodes.add(index, newNode);
     }
 
     @Override
     public void delete(int pos) {
-        if (pos < 0 || pos >= nodes.size()) {
+        if (pos < 0 || pos >= size) {
             throw new IndexOutOfBoundsException();
         }
-        nodes.remove(pos);
+        if (pos == 0) {
+            removeFirst();
+            return;
+        }
+        Node previous = nodeAt(pos - 1);
+        Node removed = previous.next;
+        previous.next = removed.next;
+        if (removed == tail) {
+            tail = previous;
+        }
+        size--;
+        modCount++;
     }
 
     @Override
     public T get(int pos) {
-        if (pos < 0 || pos >= nodes.size()) {
+        if (pos < 0 || pos >= size) {
             throw new IndexOutOfBoundsException();
         }
-        return nodes.get(pos).data;
+        return nodeAt(pos).data;
     }
 
     @Override
     public void removeFirst() {
-        if (nodes.isEmpty()) {
+        if (head == null) {
             throw new NoSuchElementException("The list is empty.");
 
         }
-        nodes.remove(0);
+        head = head.next;
+        if (head == null) {
+            tail = null;
+        }
+        size--;
+        modCount++;
     }
 
     @Override
     public T getFirst() {
-        if (nodes.isEmpty()) {
+        if (head == null) {
             throw new NoSuchElementException("The list is empty.");
 
         }
-        return nodes.get(0).data;
+        return head.data;
+    }
+
+    /**
+     * Returns last element in O(1) time
+     * @return last element
+     */
+    public T getLast() {
+        if (tail == null) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        return tail.data;
     }
 
     @Override
     public int getSize() {
-        return nodes.size();
+        return size;
+    }
+
+    private Node nodeAt(int pos) {
+        if (pos == size - 1) {
+            return tail;
+        }
+        Node current = head;
+        for (int i = 0; i < pos; i++) {
+            current = current.next;
+        }
+        return current;
     }
 
-//    @Override
+    @Override
     public Iterator<T> iterator() {
         return new Iterator<T>() {
-            private int currentIndex = 0;
+            private Node current = head;
+            private final int expectedModCount = modCount;
 
             @Override
             public boolean hasNext() {
-                return currentIndex < nodes.size();
+                return current != null;
             }
 
             @Override
             public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
                 if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                return nodes.get(currentIndex++).data;
+                T data = current.data;
+                current = current.next;
+                return data;
             }
         };
     }
-}
\ No newline at end of file
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new NodeSpliterator(head, size, modCount);
+    }
+
+    /*
+     Covers a run of exactly 'remaining' nodes starting at 'current'. Splitting walks
+     to the middle of the run, so both halves know their exact size (SIZED | SUBSIZED).
+     */
+    private class NodeSpliterator implements Spliterator<T> {
+        private Node current;
+        private int remaining;
+        private final int expectedModCount;
+
+        NodeSpliterator(Node current, int remaining, int expectedModCount) {
+            this.current = current;
+            this.remaining = remaining;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            checkForComodification();
+            if (remaining == 0) {
+                return false;
+            }
+            T data = current.data;
+            current = current.next;
+            remaining--;
+            action.accept(data);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            checkForComodification();
+            Node node = current;
+            for (int i = remaining; i > 0; i--) {
+                action.accept(node.data);
+                node = node.next;
+            }
+            current = node;
+            remaining = 0;
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            checkForComodification();
+            int half = remaining >>> 1;
+            if (half == 0) {
+                return null;
+            }
+            Node prefixStart = current;
+            for (int i = 0; i < half; i++) {
+                current = current.next;
+            }
+            remaining -= half;
+            return new NodeSpliterator(prefixStart, half, expectedModCount);
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package nl.han.ica;
+
+import java.util.Objects;
+
+/**
+ * Immutable hash array mapped trie (HAMT). put() copies only the path from the root to the
+ * changed slot and shares everything else with the old map, so old versions stay valid and
+ * can be read from any thread. Lookups and puts take O(log32 n) steps.
+ */
+public final class HANPersistentMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final HANPersistentMap<?, ?> EMPTY = new HANPersistentMap<>(new BitmapNode(0, new Object[0]), 0);
+
+    private final BitmapNode root;
+    private final int size;
+
+    private static final class Entry {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Entry(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // slots hold an Entry, a BitmapNode or a CollisionNode, ordered by hash fragment
+    private static final class BitmapNode {
+        final int bitmap;
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    // entries whose keys have exactly the same hash
+    private static final class CollisionNode {
+        final int hash;
+        final Entry[] entries;
+
+        CollisionNode(int hash, Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+    }
+
+    private HANPersistentMap(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> HANPersistentMap<K, V> empty() {
+        return (HANPersistentMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns value bound to key
+     * @param key key to look up
+     * @return the value, or null when key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Entry entry = find(key);
+        return entry == null ? null : (V) entry.value;
+    }
+
+    /**
+     * Checks whether key is in the map
+     * @param key key to look up
+     * @return true when present
+     */
+    public boolean containsKey(K key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Returns a new map with key bound to value. This map is left unchanged
+     * @param key key to bind
+     * @param value value to bind
+     * @return the new map
+     */
+    public HANPersistentMap<K, V> put(K key, V value) {
+        Entry entry = new Entry(hash(key), key, value);
+        boolean[] added = new boolean[1];
+        BitmapNode newRoot = put(root, entry, 0, added);
+        return new HANPersistentMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Number of keys in the map
+     * @return number of keys
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private Entry find(Object key) {
+        int hash = hash(key);
+        BitmapNode node = root;
+        int shift = 0;
+        while (true) {
+            int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[Integer.bitCount(node.bitmap & (bit - 1))];
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                return entry.hash == hash && Objects.equals(entry.key, key) ? entry : null;
+            } else if (slot instanceof CollisionNode) {
+                CollisionNode collision = (CollisionNode) slot;
+                if (collision.hash != hash) {
+                    return null;
+                }
+                for (Entry entry : collision.entries) {
+                    if (Objects.equals(entry.key, key)) {
+                        return entry;
+                    }
+                }
+                return null;
+            }
+            node = (BitmapNode) slot;
+            shift += BITS;
+        }
+    }
+
+    private static BitmapNode put(BitmapNode node, Entry entry, int shift, boolean[] added) {
+        int bit = bit(entry.hash, shift);
+        int index = Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) == 0) {
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            slots[index] = entry;
+            System.arraycopy(node.slots, index, slots, index + 1, node.slots.length - index);
+            added[0] = true;
+            return new BitmapNode(node.bitmap | bit, slots);
+        }
+        Object slot = node.slots[index];
+        Object replacement;
+        if (slot instanceof Entry) {
+            Entry existing = (Entry) slot;
+            if (existing.hash == entry.hash && Objects.equals(existing.key, entry.key)) {
+                replacement = entry;
+            } else {
+                added[0] = true;
+                replacement = merge(existing, existing.hash, entry, shift + BITS);
+            }
+        } else if (slot instanceof CollisionNode) {
+            CollisionNode collision = (CollisionNode) slot;
+            if (collision.hash == entry.hash) {
+                replacement = putCollision(collision, entry, added);
+            } else {
+                added[0] = true;
+                replacement = merge(collision, collision.hash, entry, shift + BITS);
+            }
+        } else {
+            replacement = put((BitmapNode) slot, entry, shift + BITS, added);
+        }
+        Object[] slots = node.slots.clone();
+        slots[index] = replacement;
+        return new BitmapNode(node.bitmap, slots);
+    }
+
+    private static CollisionNode putCollision(CollisionNode collision, Entry entry, boolean[] added) {
+        Entry[] entries = collision.entries;
+        for (int i = 0; i < entries.length; i++) {
+            if (Objects.equals(entries[i].key, entry.key)) {
+                Entry[] replaced = entries.clone();
+                replaced[i] = entry;
+                return new CollisionNode(collision.hash, replaced);
+            }
+        }
+        Entry[] grown = new Entry[entries.length + 1];
+        System.arraycopy(entries, 0, grown, 0, entries.length);
+        grown[entries.length] = entry;
+        added[0] = true;
+        return new CollisionNode(collision.hash, grown);
+    }
+
+    // combines an existing slot and a new entry with a different or equal hash below shift
+    private static Object merge(Object existing, int existingHash, Entry entry, int shift) {
+        if (existingHash == entry.hash) {
+            return new CollisionNode(entry.hash, new Entry[]{(Entry) existing, entry});
+        }
+        int existingBit = bit(existingHash, shift);
+        int entryBit = bit(entry.hash, shift);
+        if (existingBit == entryBit) {
+            return new BitmapNode(existingBit, new Object[]{merge(existing, existingHash, entry, shift + BITS)});
+        }
+        Object[] slots = Integer.compareUnsigned(existingBit, entryBit) < 0
+                ? new Object[]{existing, entry}
+                : new Object[]{entry, existing};
+        return new BitmapNode(existingBit | entryBit, slots);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,57 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANScope;
+
+/**
+ * Persistent scope chain. Each scope holds one HANPersistentMap with every visible binding,
+ * so lookup is a single O(log n) probe regardless of nesting depth. Entering a scope shares
+ * the map of the enclosing scope and costs O(1); exiting simply returns the enclosing scope.
+ */
+public class HANPersistentScope<K, V> implements IHANScope<K, V> {
+    private final HANPersistentMap<K, V> bindings;
+    private final HANPersistentScope<K, V> parent;
+    private final int depth;
+
+    public HANPersistentScope() {
+        this(HANPersistentMap.empty(), null, 0);
+    }
+
+    private HANPersistentScope(HANPersistentMap<K, V> bindings, HANPersistentScope<K, V> parent, int depth) {
+        this.bindings = bindings;
+        this.parent = parent;
+        this.depth = depth;
+    }
+
+    @Override
+    public HANPersistentScope<K, V> enter() {
+        return new HANPersistentScope<>(bindings, this, depth + 1);
+    }
+
+    @Override
+    public HANPersistentScope<K, V> exit() {
+        if (parent == null) {
+            throw new IllegalStateException("Cannot exit the outermost scope.");
+        }
+        return parent;
+    }
+
+    @Override
+    public HANPersistentScope<K, V> define(K key, V value) {
+        return new HANPersistentScope<>(bindings.put(key, value), parent, depth);
+    }
+
+    @Override
+    public V lookup(K key) {
+        return bindings.get(key);
+    }
+
+    @Override
+    public boolean isDefined(K key) {
+        return bindings.containsKey(key);
+    }
+
+    @Override
+    public int getDepth() {
+        return depth;
+    }
+}
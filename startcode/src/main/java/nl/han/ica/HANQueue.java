@@ -11,7 +11,7 @@ public class HANQueue <T> implements IHANQueue<T> {
     }
     @Override
     public void enqueue(T value) {
-        list.addFirst(value);
+        list.addLast(value);
     }
 
     @Override
@@ -19,8 +19,8 @@ public class HANQueue <T> implements IHANQueue<T> {
         if (list.getSize() == 0) {
             return null;
         }
-        T value = list.get(list.getSize() - 1);
-        list.delete(list.getSize() - 1);
+        T value = list.getFirst();
+        list.removeFirst();
         return value;
     }
 
@@ -29,7 +29,7 @@ public class HANQueue <T> implements IHANQueue<T> {
         if (list.getSize() == 0) {
             return null;
         }
-        return list.get(list.getSize() - 1);
+        return list.getFirst();
     }
 
     @Override
@@ -0,0 +1,79 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANSymbolTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Flat symbol table: one HashMap from name to a shadow stack of bindings, innermost on top.
+ * Every scope remembers which names it bound in an undo log, exitScope() pops exactly those.
+ */
+public class HANSymbolTable<V> implements IHANSymbolTable<V> {
+    private final HashMap<String, Binding<V>> bindings = new HashMap<>();
+    private final ArrayList<String> undoLog = new ArrayList<>();
+    private final HANIntStack scopeStarts = new HANIntStack();
+
+    private static class Binding<V> {
+        V value;
+        final int depth;
+        final Binding<V> shadowed;
+
+        Binding(V value, int depth, Binding<V> shadowed) {
+            this.value = value;
+            this.depth = depth;
+            this.shadowed = shadowed;
+        }
+    }
+
+    @Override
+    public void enterScope() {
+        scopeStarts.push(undoLog.size());
+    }
+
+    @Override
+    public void exitScope() {
+        if (scopeStarts.isEmpty()) {
+            throw new IllegalStateException("Cannot exit the global scope.");
+        }
+        int start = scopeStarts.pop();
+        for (int i = undoLog.size() - 1; i >= start; i--) {
+            String name = undoLog.remove(i);
+            Binding<V> binding = bindings.get(name);
+            if (binding.shadowed == null) {
+                bindings.remove(name);
+            } else {
+                bindings.put(name, binding.shadowed);
+            }
+        }
+    }
+
+    @Override
+    public void define(String name, V value) {
+        Binding<V> current = bindings.get(name);
+        int depth = getDepth();
+        if (current != null && current.depth == depth) {
+            // reassignment within the same scope
+            current.value = value;
+            return;
+        }
+        bindings.put(name, new Binding<>(value, depth, current));
+        undoLog.add(name);
+    }
+
+    @Override
+    public V lookup(String name) {
+        Binding<V> binding = bindings.get(name);
+        return binding == null ? null : binding.value;
+    }
+
+    @Override
+    public boolean isDefined(String name) {
+        return bindings.containsKey(name);
+    }
+
+    @Override
+    public int getDepth() {
+        return scopeStarts.getSize();
+    }
+}
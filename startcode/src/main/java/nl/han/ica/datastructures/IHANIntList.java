@@ -0,0 +1,47 @@
+package nl.han.ica.datastructures;
+
+public interface IHANIntList {
+    /**
+     * Adds value to the back of the list
+     * @param value value to be added
+     */
+    void add(int value);
+
+    /**
+     * Clears list. Size equals 0 afterwards
+     */
+    void clear();
+
+    /**
+     * Adds value to index position
+     * @param index the position
+     * @param value the value to add at index
+     */
+    void insert(int index, int value);
+
+    /**
+     * Deletes value at position
+     * @param pos position where value is deleted
+     */
+    void delete(int pos);
+
+    /**
+     * Returns value at postion
+     * @param pos position to look up value
+     * @return value at position pos
+     */
+    int get(int pos);
+
+    /**
+     * Replaces value at position
+     * @param pos position to overwrite
+     * @param value the new value
+     */
+    void set(int pos, int value);
+
+    /**
+     * Determines size of the list
+     * @return number of items in list
+     */
+    int getSize();
+}
@@ -0,0 +1,38 @@
+package nl.han.ica.datastructures;
+
+public interface IHANIntStack {
+    /**
+     * pushes value to the top of the stack without boxing
+     * @param value value to push
+     */
+    void push(int value);
+
+    /**
+     * Pops (and removes) value at top of stack
+     * @return popped value
+     */
+    int pop();
+
+    /**
+     * Peeks at the top of the stack. Does not remove anything
+     * @return value at the top of the stack
+     */
+    int peek();
+
+    /**
+     * Checks whether stack is empty or not
+     * @return true when empty, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Size of stack
+     * @return the number of items on the stack
+     */
+    int getSize();
+
+    /**
+     * Clears stack. Size equals 0 afterwards
+     */
+    void clear();
+}
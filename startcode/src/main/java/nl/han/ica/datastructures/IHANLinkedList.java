@@ -1,8 +1,10 @@
 package nl.han.ica.datastructures;
 
-//import java.util.Iterator;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public interface IHANLinkedList<T> {
+public interface IHANLinkedList<T> extends Iterable<T> {
     /**
      * Adds value to the front of the list
      * @param value generic value to be added
@@ -40,7 +42,7 @@ public interface IHANLinkedList<T> {
     void removeFirst();
 
     /**
-     * Returns first element in O(n) time
+     * Returns first element in O(1) time
      * @return first element
      */
     T getFirst();
@@ -51,5 +53,25 @@ public interface IHANLinkedList<T> {
      */
     int getSize();
 
-//    Iterator<T> iterator();
+    /**
+     * Iterates from the first to the last element. Fails fast when the list is modified meanwhile
+     * @return iterator over the list
+     */
+    Iterator<T> iterator();
+
+    /**
+     * Sequential stream over the elements, in list order
+     * @return stream of elements
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Parallel stream over the elements, split with the list's spliterator
+     * @return parallel stream of elements
+     */
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
@@ -0,0 +1,47 @@
+package nl.han.ica.datastructures;
+
+/**
+ * Immutable chain of nested scopes. Every operation returns a new scope and leaves the
+ * old one untouched, so a scope can be shared between threads and kept as a snapshot.
+ */
+public interface IHANScope<K, V> {
+    /**
+     * Opens a nested scope on top of this one in O(1) time
+     * @return the nested scope
+     */
+    IHANScope<K, V> enter();
+
+    /**
+     * Leaves this scope
+     * @return the enclosing scope, without the bindings made in this scope
+     */
+    IHANScope<K, V> exit();
+
+    /**
+     * Binds key to value in this scope, shadowing bindings of enclosing scopes
+     * @param key name to bind
+     * @param value value to bind
+     * @return this scope extended with the binding
+     */
+    IHANScope<K, V> define(K key, V value);
+
+    /**
+     * Looks up the innermost binding of key
+     * @param key name to look up
+     * @return bound value, or null when key is not defined in any visible scope
+     */
+    V lookup(K key);
+
+    /**
+     * Checks whether key is defined in this scope or an enclosing one
+     * @param key name to look up
+     * @return true when defined
+     */
+    boolean isDefined(K key);
+
+    /**
+     * Nesting depth, the outermost scope has depth 0
+     * @return depth of this scope
+     */
+    int getDepth();
+}
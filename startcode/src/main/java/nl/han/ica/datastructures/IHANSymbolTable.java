@@ -0,0 +1,43 @@
+package nl.han.ica.datastructures;
+
+/**
+ * Symbol table with nested scopes where every lookup is a single probe, regardless of nesting depth.
+ */
+public interface IHANSymbolTable<V> {
+    /**
+     * Opens a nested scope
+     */
+    void enterScope();
+
+    /**
+     * Closes the innermost scope and undoes every binding made in it
+     */
+    void exitScope();
+
+    /**
+     * Binds name to value in the innermost scope, shadowing bindings of enclosing scopes
+     * @param name variable name
+     * @param value value to bind
+     */
+    void define(String name, V value);
+
+    /**
+     * Looks up the innermost visible binding of name
+     * @param name variable name
+     * @return bound value, or null when name is not defined
+     */
+    V lookup(String name);
+
+    /**
+     * Checks whether name is defined in any open scope
+     * @param name variable name
+     * @return true when defined
+     */
+    boolean isDefined(String name);
+
+    /**
+     * Number of open nested scopes, 0 when only the global scope is open
+     * @return current depth
+     */
+    int getDepth();
+}
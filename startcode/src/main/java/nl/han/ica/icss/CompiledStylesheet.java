@@ -0,0 +1,606 @@
+package nl.han.ica.icss;
+
+import nl.han.ica.icss.ast.*;
+import nl.han.ica.icss.ast.literals.BoolLiteral;
+import nl.han.ica.icss.ast.types.ExpressionType;
+import nl.han.ica.icss.checker.Checker;
+import nl.han.ica.icss.checker.PropertySchema;
+import nl.han.ica.icss.checker.SemanticError;
+import nl.han.ica.icss.checker.SemanticErrorCollector;
+import nl.han.ica.icss.generator.Generator;
+import nl.han.ica.icss.transforms.CompiledExpression;
+import nl.han.ica.icss.transforms.ExpressionCompiler;
+import nl.han.ica.icss.transforms.VariableResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A stylesheet that is parsed and checked once and then rendered many times with different values for its
+ * top-level variables. Compiling turns everything that does not depend on a top-level variable into ready-made
+ * output text; render() only evaluates the remaining expressions and if-conditions and splices their values
+ * between the cached fragments. The AST is neither modified nor kept, so one instance may render on several
+ * threads at once.
+ */
+public class CompiledStylesheet {
+
+    private final Generator generator = new Generator();
+
+    private Fragment[] fragments;
+    // top-level variables: their slot in the global frame, and the type a new value must have;
+    // null for a variable whose assignments have different types, it cannot be given a new value
+    private final Map<String, Integer> globalSlots = new HashMap<>();
+    private ExpressionType[] globalTypes;
+    private int frameCount;
+    // length of the previous output, used to size the next one
+    private volatile int expectedLength = 256;
+
+    /**
+     * Parses and checks source
+     * @param source ICSS source
+     * @return the compiled stylesheet
+     * @throws IllegalArgumentException when source has syntax or semantic errors
+     */
+    public static CompiledStylesheet compile(String source) {
+        Pipeline pipeline = new Pipeline();
+        pipeline.parseString(source);
+        if (!pipeline.isParsed()) {
+            throw new IllegalArgumentException(String.join("\n", pipeline.getErrors()));
+        }
+        AST ast = pipeline.getAST();
+        SemanticErrorCollector collector = new SemanticErrorCollector();
+        Checker checker = new Checker();
+        checker.setErrorCollector(collector);
+        checker.check(ast);
+        if (!collector.getErrors().isEmpty()) {
+            List<String> errors = new ArrayList<>();
+            for (SemanticError error : collector.getErrors()) {
+                errors.add(error.toString());
+            }
+            throw new IllegalArgumentException(String.join("\n", errors));
+        }
+        return new CompiledStylesheet(ast);
+    }
+
+    private CompiledStylesheet(AST ast) {
+        new FragmentCompiler().compile(ast);
+    }
+
+    /**
+     * @return names of the top-level variables render() accepts values for
+     */
+    public Set<String> getVariables() {
+        Set<String> variables = new HashSet<>();
+        for (Map.Entry<String, Integer> global : globalSlots.entrySet()) {
+            if (globalTypes[global.getValue()] != null) {
+                variables.add(global.getKey());
+            }
+        }
+        return Collections.unmodifiableSet(variables);
+    }
+
+    /**
+     * Renders the stylesheet with the values assigned in the source
+     * @return the generated CSS
+     */
+    public String render() {
+        return render(Collections.emptyMap());
+    }
+
+    /**
+     * Renders the stylesheet with new values for some top-level variables. A value replaces every top-level
+     * assignment of its variable; everything computed from the variable is evaluated again.
+     * @param bindings new values by variable name
+     * @return the generated CSS, the same as generating the source with the values assigned in it
+     * @throws IllegalArgumentException for an unknown variable, a variable whose assignments have different types,
+     * or a value of another type than in the source
+     */
+    public String render(Map<String, Literal> bindings) {
+        Literal[] overrides = new Literal[globalTypes.length];
+        for (Map.Entry<String, Literal> binding : bindings.entrySet()) {
+            Integer slot = globalSlots.get(binding.getKey());
+            if (slot == null) {
+                throw new IllegalArgumentException("Variable " + binding.getKey() + " is not defined.");
+            }
+            if (globalTypes[slot] == null) {
+                throw new IllegalArgumentException("Variable " + binding.getKey()
+                        + " is assigned values of different types and cannot be given a new value.");
+            }
+            if (CompiledExpression.typeOf(binding.getValue()) != globalTypes[slot]) {
+                throw new IllegalArgumentException(binding.getKey() + " must have a "
+                        + PropertySchema.describe(PropertySchema.bit(globalTypes[slot])) + " value.");
+            }
+            overrides[slot] = binding.getValue();
+        }
+
+        StringBuilder css = new StringBuilder(expectedLength);
+        Literal[][] frames = new Literal[frameCount][];
+        frames[0] = new Literal[globalTypes.length];
+        for (Fragment fragment : fragments) {
+            fragment.render(frames, overrides, css);
+        }
+        expectedLength = css.length();
+        return css.toString();
+    }
+
+    /*
+     A piece of the output. Text is computed while compiling, the other fragments evaluate compiled expressions
+     against the frames of the render call.
+     */
+    private abstract static class Fragment {
+        abstract void render(Literal[][] frames, Literal[] overrides, StringBuilder css);
+
+        // renders a fragment in the body of a DistinctDeclarations, where declarations are recorded instead of written
+        void collect(Literal[][] frames, Literal[] overrides, RuleDeclarations declarations) {
+            render(frames, overrides, null);
+        }
+    }
+
+    private static final class Text extends Fragment {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        @Override
+        void render(Literal[][] frames, Literal[] overrides, StringBuilder css) {
+            css.append(text);
+        }
+    }
+
+    private final class Value extends Fragment {
+        private final CompiledExpression expression;
+
+        Value(CompiledExpression expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        void render(Literal[][] frames, Literal[] overrides, StringBuilder css) {
+            generator.appendExpression(css, expression.evaluate(frames));
+        }
+    }
+
+    private static final class Assign extends Fragment {
+        private final int depth;
+        private final int slot;
+        private final CompiledExpression expression;
+
+        Assign(int depth, int slot, CompiledExpression expression) {
+            this.depth = depth;
+            this.slot = slot;
+            this.expression = expression;
+        }
+
+        @Override
+        void render(Literal[][] frames, Literal[] overrides, StringBuilder css) {
+            Literal value = depth == 0 ? overrides[slot] : null;
+            frames[depth][slot] = value != null ? value : expression.evaluate(frames);
+        }
+    }
+
+    // statements of a block that needs its own frame at render time, or of a branch
+    private static final class Block extends Fragment {
+        private final int depth;
+        private final int frameSize;
+        private final Fragment[] body;
+
+        Block(int depth, int frameSize, Fragment[] body) {
+            this.depth = depth;
+            this.frameSize = frameSize;
+            this.body = body;
+        }
+
+        @Override
+        void render(Literal[][] frames, Literal[] overrides, StringBuilder css) {
+            if (frameSize > 0) {
+                frames[depth] = new Literal[frameSize];
+            }
+            for (Fragment fragment : body) {
+                fragment.render(frames, overrides, css);
+            }
+        }
+
+        @Override
+        void collect(Literal[][] frames, Literal[] overrides, RuleDeclarations declarations) {
+            if (frameSize > 0) {
+                frames[depth] = new Literal[frameSize];
+            }
+            for (Fragment fragment : body) {
+                fragment.collect(frames, overrides, declarations);
+            }
+        }
+    }
+
+    // an if-clause whose condition depends on a top-level variable
+    private static final class Branch extends Fragment {
+        private final CompiledExpression condition;
+        private final Block ifBody;
+        private final Block elseBody;
+
+        Branch(CompiledExpression condition, Block ifBody, Block elseBody) {
+            this.condition = condition;
+            this.ifBody = ifBody;
+            this.elseBody = elseBody;
+        }
+
+        @Override
+        void render(Literal[][] frames, Literal[] overrides, StringBuilder css) {
+            Literal value = condition.evaluate(frames);
+            if (!(value instanceof BoolLiteral)) {
+                return;
+            }
+            if (((BoolLiteral) value).value) {
+                ifBody.render(frames, overrides, css);
+            } else if (elseBody != null) {
+                elseBody.render(frames, overrides, css);
+            }
+        }
+
+        @Override
+        void collect(Literal[][] frames, Literal[] overrides, RuleDeclarations declarations) {
+            Literal value = condition.evaluate(frames);
+            if (!(value instanceof BoolLiteral)) {
+                return;
+            }
+            if (((BoolLiteral) value).value) {
+                ifBody.collect(frames, overrides, declarations);
+            } else if (elseBody != null) {
+                elseBody.collect(frames, overrides, declarations);
+            }
+        }
+    }
+
+    // a declaration in a rule that may declare a property twice, property is its index among the rule's properties
+    private final class Declare extends Fragment {
+        private final int property;
+        private final String start;
+        // the value text when it is known while compiling, otherwise value is evaluated
+        private final String constant;
+        private final CompiledExpression value;
+
+        Declare(int property, String start, String constant, CompiledExpression value) {
+            this.property = property;
+            this.start = start;
+            this.constant = constant;
+            this.value = value;
+        }
+
+        @Override
+        void render(Literal[][] frames, Literal[] overrides, StringBuilder css) {
+            append(css, constant == null ? value.evaluate(frames) : null);
+        }
+
+        @Override
+        void collect(Literal[][] frames, Literal[] overrides, RuleDeclarations declarations) {
+            declarations.declare(this, constant == null ? value.evaluate(frames) : null);
+        }
+
+        void append(StringBuilder css, Literal evaluated) {
+            css.append(start);
+            if (constant != null) {
+                css.append(constant);
+            } else {
+                generator.appendExpression(css, evaluated);
+            }
+            generator.appendDeclarationEnd(css);
+        }
+    }
+
+    /*
+     The declarations one render of a rule produced. Like the Pipeline, only the last declaration of every property
+     is kept, at the position where it was made.
+     */
+    private static final class RuleDeclarations {
+        // per property: its last declaration, the value it evaluated to and its position
+        private final Declare[] declares;
+        private final Literal[] values;
+        private final int[] positions;
+        // per position: the declared property
+        private final int[] properties;
+        private int count;
+
+        RuleDeclarations(int propertyCount, int declarationCount) {
+            declares = new Declare[propertyCount];
+            values = new Literal[propertyCount];
+            positions = new int[propertyCount];
+            properties = new int[declarationCount];
+        }
+
+        void declare(Declare declare, Literal value) {
+            declares[declare.property] = declare;
+            values[declare.property] = value;
+            positions[declare.property] = count;
+            properties[count++] = declare.property;
+        }
+
+        void appendTo(StringBuilder css) {
+            for (int i = 0; i < count; i++) {
+                int property = properties[i];
+                if (positions[property] == i) {
+                    declares[property].append(css, values[property]);
+                }
+            }
+        }
+    }
+
+    // the body of a rule that may declare a property twice
+    private static final class DistinctDeclarations extends Fragment {
+        private final Fragment[] body;
+        private final int propertyCount;
+        private final int declarationCount;
+
+        DistinctDeclarations(Fragment[] body, int propertyCount, int declarationCount) {
+            this.body = body;
+            this.propertyCount = propertyCount;
+            this.declarationCount = declarationCount;
+        }
+
+        @Override
+        void render(Literal[][] frames, Literal[] overrides, StringBuilder css) {
+            RuleDeclarations declarations = new RuleDeclarations(propertyCount, declarationCount);
+            for (Fragment fragment : body) {
+                fragment.collect(frames, overrides, declarations);
+            }
+            declarations.appendTo(css);
+        }
+    }
+
+    // collects fragments and merges adjacent text into one Text fragment
+    private final class FragmentList {
+        private final List<Fragment> fragments = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        StringBuilder text() {
+            return text;
+        }
+
+        void add(Fragment fragment) {
+            flush();
+            fragments.add(fragment);
+        }
+
+        void addAll(FragmentList other) {
+            other.flush();
+            for (Fragment fragment : other.fragments) {
+                if (fragment instanceof Text) {
+                    text.append(((Text) fragment).text);
+                } else {
+                    add(fragment);
+                }
+            }
+        }
+
+        boolean isStatic() {
+            flush();
+            return fragments.size() <= 1 && (fragments.isEmpty() || fragments.get(0) instanceof Text);
+        }
+
+        Fragment[] toArray() {
+            flush();
+            return fragments.toArray(new Fragment[0]);
+        }
+
+        private void flush() {
+            if (text.length() > 0) {
+                fragments.add(new Text(text.toString()));
+                text.setLength(0);
+            }
+        }
+    }
+
+    /*
+     Walks the AST like the Evaluator does, but instead of evaluating it records which values are known while
+     compiling. Top-level variables are never known since render() may replace them; any expression reading one
+     becomes a fragment, everything else is folded into text.
+     */
+    private class FragmentCompiler {
+        private final VariableResolver resolver = new VariableResolver();
+        // while compiling a rule that may declare a property twice: the index of every property in the rule
+        private Map<String, Integer> ruleProperties;
+        private int ruleDeclarationCount;
+        // per frame depth: the values known while compiling and the types of all values
+        private Literal[][] knownValues = new Literal[8][];
+        private ExpressionType[][] knownTypes = new ExpressionType[8][];
+        private int depth = -1;
+        private final ExpressionCompiler compiler = new ExpressionCompiler(new ExpressionCompiler.SlotTypes() {
+            @Override
+            public ExpressionType typeOf(int depth, int slot) {
+                return knownTypes[depth][slot];
+            }
+
+            @Override
+            public Literal constantValue(int depth, int slot) {
+                return knownValues[depth][slot];
+            }
+        });
+
+        void compile(AST ast) {
+            resolver.apply(ast);
+            enterFrame(ast.root);
+            globalTypes = new ExpressionType[resolver.getFrameSize(ast.root)];
+            FragmentList root = new FragmentList();
+            for (ASTNode node : ast.root.body) {
+                if (node instanceof VariableAssignment) {
+                    compileGlobal((VariableAssignment) node, root);
+                } else if (node instanceof Stylerule) {
+                    compileStylerule((Stylerule) node, root);
+                }
+            }
+            exitFrame();
+            fragments = root.toArray();
+        }
+
+        private void compileGlobal(VariableAssignment assignment, FragmentList out) {
+            CompiledExpression value = compiler.compile(assignment.expression);
+            if (!globalSlots.containsKey(assignment.name.name)) {
+                globalSlots.put(assignment.name.name, assignment.slot);
+                globalTypes[assignment.slot] = value.type;
+            } else if (globalTypes[assignment.slot] != value.type) {
+                // a new value would replace assignments that the following code was compiled for with another type
+                globalTypes[assignment.slot] = null;
+            }
+            if (globalTypes[assignment.slot] == ExpressionType.UNDEFINED) {
+                // no literal has this type, a new value could never be accepted
+                globalTypes[assignment.slot] = null;
+            }
+            knownTypes[0][assignment.slot] = value.type;
+            out.add(new Assign(0, assignment.slot, value));
+        }
+
+        private void compileStylerule(Stylerule stylerule, FragmentList out) {
+            generator.appendRuleStart(out.text(), stylerule, 0);
+            Map<String, Integer> properties = new HashMap<>();
+            if (indexProperties(stylerule.body, properties)) {
+                ruleProperties = properties;
+                ruleDeclarationCount = 0;
+                FragmentList body = new FragmentList();
+                appendBlock(stylerule, stylerule.body, body);
+                ruleProperties = null;
+                DistinctDeclarations declarations = new DistinctDeclarations(body.toArray(), properties.size(),
+                        ruleDeclarationCount);
+                if (isConstant(declarations.body)) {
+                    // which declarations are overridden is known already
+                    declarations.render(null, null, out.text());
+                } else {
+                    out.add(declarations);
+                }
+            } else {
+                appendBlock(stylerule, stylerule.body, out);
+            }
+            generator.appendRuleEnd(out.text(), 0);
+        }
+
+        // gives every property declared in the body, whichever branch it is in, an index; true when one repeats
+        private boolean indexProperties(List<ASTNode> body, Map<String, Integer> properties) {
+            boolean repeated = false;
+            for (ASTNode node : body) {
+                if (node instanceof Declaration) {
+                    String property = ((Declaration) node).property.name;
+                    repeated |= properties.putIfAbsent(property, properties.size()) != null;
+                } else if (node instanceof IfClause) {
+                    IfClause ifClause = (IfClause) node;
+                    repeated |= indexProperties(ifClause.body, properties);
+                    if (ifClause.elseClause != null) {
+                        repeated |= indexProperties(ifClause.elseClause.body, properties);
+                    }
+                }
+            }
+            return repeated;
+        }
+
+        private boolean isConstant(Fragment[] body) {
+            for (Fragment fragment : body) {
+                if (!(fragment instanceof Declare) || ((Declare) fragment).constant == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // a block whose body always runs: its text is inlined, it only needs a frame when something is left to evaluate
+        private void appendBlock(ASTNode block, List<ASTNode> body, FragmentList out) {
+            FragmentList compiled = compileBlock(block, body);
+            int frameSize = resolver.getFrameSize(block);
+            if (compiled.isStatic() || frameSize == 0) {
+                out.addAll(compiled);
+            } else {
+                out.add(new Block(depth + 1, frameSize, compiled.toArray()));
+            }
+        }
+
+        private FragmentList compileBlock(ASTNode block, List<ASTNode> body) {
+            enterFrame(block);
+            FragmentList compiled = new FragmentList();
+            for (ASTNode node : body) {
+                compileStatement(node, compiled);
+            }
+            exitFrame();
+            return compiled;
+        }
+
+        private void compileStatement(ASTNode node, FragmentList out) {
+            if (node instanceof VariableAssignment) {
+                VariableAssignment assignment = (VariableAssignment) node;
+                CompiledExpression value = compiler.compile(assignment.expression);
+                knownTypes[depth][assignment.slot] = value.type;
+                if (value.isConstant()) {
+                    knownValues[depth][assignment.slot] = value.evaluate(null);
+                } else {
+                    knownValues[depth][assignment.slot] = null;
+                    out.add(new Assign(depth, assignment.slot, value));
+                }
+            } else if (node instanceof Declaration && ruleProperties != null) {
+                Declaration declaration = (Declaration) node;
+                CompiledExpression value = compiler.compile(declaration.expression);
+                StringBuilder start = new StringBuilder();
+                generator.appendDeclarationStart(start, declaration.property.name, 1);
+                String constant = null;
+                if (value.isConstant()) {
+                    StringBuilder text = new StringBuilder();
+                    generator.appendExpression(text, value.evaluate(null));
+                    constant = text.toString();
+                }
+                ruleDeclarationCount++;
+                out.add(new Declare(ruleProperties.get(declaration.property.name), start.toString(), constant, value));
+            } else if (node instanceof Declaration) {
+                Declaration declaration = (Declaration) node;
+                CompiledExpression value = compiler.compile(declaration.expression);
+                generator.appendDeclarationStart(out.text(), declaration.property.name, 1);
+                if (value.isConstant()) {
+                    generator.appendExpression(out.text(), value.evaluate(null));
+                } else {
+                    out.add(new Value(value));
+                }
+                generator.appendDeclarationEnd(out.text());
+            } else if (node instanceof IfClause) {
+                compileIfClause((IfClause) node, out);
+            }
+        }
+
+        private void compileIfClause(IfClause ifClause, FragmentList out) {
+            CompiledExpression condition = compiler.compile(ifClause.conditionalExpression);
+            if (!condition.isConstant()) {
+                Block elseBody = ifClause.elseClause == null ? null : branchBlock(ifClause.elseClause, ifClause.elseClause.body);
+                out.add(new Branch(condition, branchBlock(ifClause, ifClause.body), elseBody));
+                return;
+            }
+            Literal value = condition.evaluate(null);
+            if (!(value instanceof BoolLiteral)) {
+                return;
+            }
+            if (((BoolLiteral) value).value) {
+                appendBlock(ifClause, ifClause.body, out);
+            } else if (ifClause.elseClause != null) {
+                appendBlock(ifClause.elseClause, ifClause.elseClause.body, out);
+            }
+        }
+
+        private Block branchBlock(ASTNode block, List<ASTNode> body) {
+            return new Block(depth + 1, resolver.getFrameSize(block), compileBlock(block, body).toArray());
+        }
+
+        private void enterFrame(ASTNode block) {
+            depth++;
+            if (depth == knownValues.length) {
+                knownValues = Arrays.copyOf(knownValues, depth * 2);
+                knownTypes = Arrays.copyOf(knownTypes, depth * 2);
+            }
+            int size = resolver.getFrameSize(block);
+            knownValues[depth] = new Literal[size];
+            knownTypes[depth] = new ExpressionType[size];
+            frameCount = Math.max(frameCount, depth + 1);
+        }
+
+        private void exitFrame() {
+            depth--;
+        }
+    }
+}
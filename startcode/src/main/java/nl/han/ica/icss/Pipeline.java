@@ -1,12 +1,16 @@
 package nl.han.ica.icss;
 
 import nl.han.ica.icss.ast.AST;
+import nl.han.ica.icss.ast.ASTNode;
 import nl.han.ica.icss.checker.Checker;
+import nl.han.ica.icss.checker.IncrementalChecker;
 import nl.han.ica.icss.checker.SemanticError;
+import nl.han.ica.icss.checker.SemanticErrorCollector;
 import nl.han.ica.icss.generator.Generator;
 import nl.han.ica.icss.parser.ASTListener;
 import nl.han.ica.icss.parser.ICSSLexer;
 import nl.han.ica.icss.parser.ICSSParser;
+import nl.han.ica.icss.transforms.DeadCodeEliminator;
 import nl.han.ica.icss.transforms.Evaluator;
 import org.antlr.v4.runtime.*;
 import org.antlr.v4.runtime.atn.ATNConfigSet;
@@ -17,6 +21,7 @@ import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 
 public class Pipeline implements ANTLRErrorListener {
@@ -26,11 +31,39 @@ public class Pipeline implements ANTLRErrorListener {
     private boolean checked = false;
     private boolean transformed = false;
     private List<String> errors;
+    private int maxErrors = Integer.MAX_VALUE;
+    private boolean failFast = false;
+    private boolean minify = false;
+    private IncrementalChecker incrementalChecker;
 
     public Pipeline() {
         errors = new ArrayList<>();
     }
 
+    /**
+     * Limits the number of semantic errors check() reports, checking stops when the limit is reached
+     * @param maxErrors maximum number of semantic errors
+     */
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * In fail-fast mode check() stops at the first semantic error
+     * @param failFast true to stop at the first error
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * In minify mode generate() leaves out all whitespace and shortens values where CSS allows it
+     * @param minify true to generate minified CSS
+     */
+    public void setMinify(boolean minify) {
+        this.minify = minify;
+    }
+
     public AST getAST() {
         return ast;
     }
@@ -82,14 +115,19 @@ public class Pipeline implements ANTLRErrorListener {
         }
         parsed = errors.isEmpty();
         checked = transformed = false;
+        incrementalChecker = null;
     }
     public boolean check() {
             if(ast == null)
                 return false;
 
-           (new Checker()).check(this.ast);
+           SemanticErrorCollector collector = new SemanticErrorCollector(maxErrors, failFast);
+           Checker checker = new Checker();
+           checker.setParallel(true);
+           checker.setErrorCollector(collector);
+           checker.check(this.ast);
 
-            ArrayList<SemanticError> errors = this.ast.getErrors();
+            List<SemanticError> errors = collector.getErrors();
             if (!errors.isEmpty()) {
                 for (SemanticError e : errors) {
                     this.errors.add(e.toString());
@@ -101,6 +139,33 @@ public class Pipeline implements ANTLRErrorListener {
             return errors.isEmpty();
     }
 
+    /**
+     * Checks the AST after it was edited in place. The first call checks everything, later calls
+     * only re-check the style rules and assignments affected by the changed nodes and variables.
+     * @param changedNodes nodes edited since the previous call, the Stylesheet when rules were added or removed
+     * @param changedVariables names of variables whose value may have changed
+     * @return true when the AST has no semantic errors
+     */
+    public boolean recheck(Collection<? extends ASTNode> changedNodes, Collection<String> changedVariables) {
+        if (ast == null)
+            return false;
+
+        List<SemanticError> errors;
+        if (incrementalChecker == null) {
+            incrementalChecker = new IncrementalChecker();
+            errors = incrementalChecker.check(ast);
+        } else {
+            errors = incrementalChecker.recheck(changedNodes, changedVariables);
+        }
+        for (SemanticError e : errors) {
+            this.errors.add(e.toString());
+        }
+
+        checked = errors.isEmpty();
+        transformed = false;
+        return errors.isEmpty();
+    }
+
     public void clearErrors(){
         errors.clear();
     }
@@ -109,13 +174,16 @@ public class Pipeline implements ANTLRErrorListener {
         if(ast == null)
             return;
 
+        (new DeadCodeEliminator(DeadCodeEliminator.Phase.BEFORE_EVALUATION)).apply(ast);
         (new Evaluator()).apply(ast);
-
+        (new DeadCodeEliminator(DeadCodeEliminator.Phase.AFTER_EVALUATION)).apply(ast);
 
         transformed = errors.isEmpty();
     }
     public String generate() {
         Generator generator = new Generator();
+        generator.setMinify(minify);
+        generator.setParallel(true);
         return generator.generate(ast);
     }
 
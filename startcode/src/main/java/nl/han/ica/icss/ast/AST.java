@@ -28,8 +28,8 @@ public class AST {
 	    if(node.hasError()) {
 	        errors.add(node.getError());
         }
-        for(ASTNode child: node.getChildren()) {
-	        collectErrors(errors,child);
+        for(int i = 0; i < node.childCount(); i++) {
+	        collectErrors(errors,node.childAt(i));
         }
     }
 	@Override
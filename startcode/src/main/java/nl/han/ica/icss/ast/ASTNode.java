@@ -19,10 +19,33 @@ public class ASTNode {
 
     /*
      Different AST nodes use different attributes to store their children.
-     This method provides a unified interface.
+     This method provides a unified interface. It copies the children into a new list,
+     passes over the tree use childCount() and childAt() instead.
      */
     public ArrayList<ASTNode> getChildren() {
-        return new ArrayList<>();
+        ArrayList<ASTNode> children = new ArrayList<>(childCount());
+        for (int i = 0; i < childCount(); i++) {
+            children.add(childAt(i));
+        }
+        return children;
+    }
+
+    /*
+     Number of children, in the same order as getChildren() but without allocating a list.
+     */
+    public int childCount() {
+        return 0;
+    }
+
+    public ASTNode childAt(int index) {
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    /*
+     Calls the visit method of visitor that matches the type of this node.
+     */
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitNode(this);
     }
     /*
     By implementing this method in a subclass you can easily create AST nodes
@@ -37,6 +60,22 @@ public class ASTNode {
     public ASTNode removeChild(ASTNode child) {
         return this;
     }
+    /*
+     Replaces the child at index in the attribute that stores it, unlike editing the list of getChildren().
+     */
+    public ASTNode replaceChild(int index, ASTNode child) {
+        throw new UnsupportedOperationException(getNodeLabel() + " cannot replace its children");
+    }
+
+    protected static <T extends ASTNode> void splice(List<T> list, int from, int to, List<? extends T> children) {
+        if (from == 0 && to == list.size()) {
+            list.clear();
+            list.addAll(children);
+        } else {
+            list.subList(from, to).clear();
+            list.addAll(from, children);
+        }
+    }
 
     public SemanticError getError() {
         return this.error;
@@ -50,6 +89,10 @@ public class ASTNode {
         return error != null;
     }
 
+    public void clearError() {
+        this.error = null;
+    }
+
 	@Override
 	public String toString() {
 		StringBuilder result = new StringBuilder();
@@ -60,8 +103,8 @@ public class ASTNode {
 		builder.append("[");
 		builder.append(getNodeLabel());	
 		builder.append("|");
-		for(ASTNode child : getChildren()) {
-			child.toString(builder);
+		for(int i = 0; i < childCount(); i++) {
+			childAt(i).toString(builder);
 		}	
 		builder.append("]");
 	}
@@ -71,12 +114,12 @@ public class ASTNode {
         if(! (o instanceof ASTNode))
             return false;
         //Compare all children
-        List<ASTNode> thisChildren = this.getChildren();
-        List<ASTNode> otherChildren = ((ASTNode) o).getChildren();
-        if(otherChildren.size() != thisChildren.size())
+        ASTNode other = (ASTNode) o;
+        int count = this.childCount();
+        if(other.childCount() != count)
             return false;
-        for(int i = 0; i < thisChildren.size(); i++ ) {
-            if(!thisChildren.get(i).equals(otherChildren.get(i))) {
+        for(int i = 0; i < count; i++ ) {
+            if(!this.childAt(i).equals(other.childAt(i))) {
                 return false;
             }
         }
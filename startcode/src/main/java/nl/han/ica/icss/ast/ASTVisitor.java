@@ -0,0 +1,114 @@
+package nl.han.ica.icss.ast;
+
+import nl.han.ica.icss.ast.literals.*;
+import nl.han.ica.icss.ast.operations.AddOperation;
+import nl.han.ica.icss.ast.operations.MultiplyOperation;
+import nl.han.ica.icss.ast.operations.SubtractOperation;
+import nl.han.ica.icss.ast.selectors.ClassSelector;
+import nl.han.ica.icss.ast.selectors.IdSelector;
+import nl.han.ica.icss.ast.selectors.TagSelector;
+
+/**
+ * Visits AST nodes by their concrete type: node.accept(visitor) calls the matching visit method.
+ * Every method defaults to the method of the node's superclass, ending in visitNode, so a visitor only
+ * implements the node types it cares about.
+ * @param <R> result type of a visit
+ */
+public interface ASTVisitor<R> {
+
+    default R visitNode(ASTNode node) {
+        return null;
+    }
+
+    default R visitStylesheet(Stylesheet node) {
+        return visitNode(node);
+    }
+
+    default R visitStylerule(Stylerule node) {
+        return visitNode(node);
+    }
+
+    default R visitDeclaration(Declaration node) {
+        return visitNode(node);
+    }
+
+    default R visitPropertyName(PropertyName node) {
+        return visitNode(node);
+    }
+
+    default R visitVariableAssignment(VariableAssignment node) {
+        return visitNode(node);
+    }
+
+    default R visitIfClause(IfClause node) {
+        return visitNode(node);
+    }
+
+    default R visitElseClause(ElseClause node) {
+        return visitNode(node);
+    }
+
+    default R visitSelector(Selector node) {
+        return visitNode(node);
+    }
+
+    default R visitTagSelector(TagSelector node) {
+        return visitSelector(node);
+    }
+
+    default R visitClassSelector(ClassSelector node) {
+        return visitSelector(node);
+    }
+
+    default R visitIdSelector(IdSelector node) {
+        return visitSelector(node);
+    }
+
+    default R visitExpression(Expression node) {
+        return visitNode(node);
+    }
+
+    default R visitVariableReference(VariableReference node) {
+        return visitExpression(node);
+    }
+
+    default R visitOperation(Operation node) {
+        return visitExpression(node);
+    }
+
+    default R visitAddOperation(AddOperation node) {
+        return visitOperation(node);
+    }
+
+    default R visitSubtractOperation(SubtractOperation node) {
+        return visitOperation(node);
+    }
+
+    default R visitMultiplyOperation(MultiplyOperation node) {
+        return visitOperation(node);
+    }
+
+    default R visitLiteral(Literal node) {
+        return visitExpression(node);
+    }
+
+    default R visitPixelLiteral(PixelLiteral node) {
+        return visitLiteral(node);
+    }
+
+    default R visitPercentageLiteral(PercentageLiteral node) {
+        return visitLiteral(node);
+    }
+
+    default R visitScalarLiteral(ScalarLiteral node) {
+        return visitLiteral(node);
+    }
+
+    default R visitColorLiteral(ColorLiteral node) {
+        return visitLiteral(node);
+    }
+
+    default R visitBoolLiteral(BoolLiteral node) {
+        return visitLiteral(node);
+    }
+}
@@ -0,0 +1,20 @@
+package nl.han.ica.icss.ast;
+
+import java.util.List;
+
+/**
+ * A node with a body of statements: the stylesheet, a stylerule and the branches of an if-clause.
+ * Transforms that rewrite a body use spliceChildren to replace a range of it at once.
+ */
+public interface BodyContainer {
+
+    int childCount();
+
+    ASTNode childAt(int index);
+
+    /*
+     Replaces the children from index from (inclusive) to index to (exclusive) by children. This works on the
+     body list itself, in time linear in its length; the range must lie within the body.
+     */
+    ASTNode spliceChildren(int from, int to, List<? extends ASTNode> children);
+}
@@ -1,6 +1,5 @@
 package nl.han.ica.icss.ast;
 
-import java.util.ArrayList;
 import java.util.Objects;
 
 /*
@@ -23,14 +22,29 @@ public class Declaration extends ASTNode {
 	}
 
 	@Override
-	public ArrayList<ASTNode> getChildren() {
+	public <R> R accept(ASTVisitor<R> visitor) {
+		return visitor.visitDeclaration(this);
+	}
 
-		ArrayList<ASTNode> children = new ArrayList<>();
-		if(property != null)
-		    children.add(property);
-		if(expression != null)
-		    children.add(expression);
-		return children;
+	@Override
+	public int childCount() {
+		return (property != null ? 1 : 0) + (expression != null ? 1 : 0);
+	}
+	@Override
+	public ASTNode childAt(int index) {
+		if(index == 0 && property != null)
+			return property;
+		if(index == childCount() - 1 && expression != null)
+			return expression;
+		throw new IndexOutOfBoundsException("Index: " + index);
+	}
+	@Override
+	public ASTNode replaceChild(int index, ASTNode child) {
+		if(index == 0 && property != null)
+			property = (PropertyName) child;
+		else if(childAt(index) == expression)
+			expression = (Expression) child;
+		return this;
 	}
 	@Override
 	public ASTNode addChild(ASTNode child) {
@@ -1,9 +1,10 @@
 package nl.han.ica.icss.ast;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
-public class ElseClause extends ASTNode{
+public class ElseClause extends ASTNode implements BodyContainer {
 
     public ArrayList<ASTNode> body = new ArrayList<>();
 
@@ -18,12 +19,18 @@ public class ElseClause extends ASTNode{
     public String getNodeLabel() {
         return "Else_Clause";
     }
-    @Override
-    public ArrayList<ASTNode> getChildren() {
-        ArrayList<ASTNode> children = new ArrayList<>();
-        children.addAll(body);
 
-        return children;
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitElseClause(this);
+    }
+    @Override
+    public int childCount() {
+        return body.size();
+    }
+    @Override
+    public ASTNode childAt(int index) {
+        return body.get(index);
     }
 
     @Override
@@ -33,6 +40,18 @@ public class ElseClause extends ASTNode{
 
         return this;
     }
+
+    @Override
+    public ASTNode replaceChild(int index, ASTNode child) {
+        body.set(index, child);
+        return this;
+    }
+
+    @Override
+    public ASTNode spliceChildren(int from, int to, List<? extends ASTNode> children) {
+        splice(body, from, to, children);
+        return this;
+    }
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,3 +1,9 @@
 package nl.han.ica.icss.ast;
 
-public abstract class Expression extends ASTNode { }
+public abstract class Expression extends ASTNode {
+
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitExpression(this);
+    }
+}
@@ -1,9 +1,10 @@
 package nl.han.ica.icss.ast;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
-public class IfClause extends ASTNode {
+public class IfClause extends ASTNode implements BodyContainer {
 
 
     public Expression conditionalExpression;
@@ -28,15 +29,24 @@ public class IfClause extends ASTNode {
     public String getNodeLabel() {
         return "If_Clause";
     }
+
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitIfClause(this);
+    }
     @Override
-    public ArrayList<ASTNode> getChildren() {
-        ArrayList<ASTNode> children = new ArrayList<>();
-        children.add(conditionalExpression);
-        children.addAll(body);
-        if (elseClause!=null)
-            children.add(elseClause);
-
-        return children;
+    public int childCount() {
+        return 1 + body.size() + (elseClause != null ? 1 : 0);
+    }
+    @Override
+    public ASTNode childAt(int index) {
+        if (index == 0)
+            return conditionalExpression;
+        if (index <= body.size())
+            return body.get(index - 1);
+        if (index == body.size() + 1 && elseClause != null)
+            return elseClause;
+        throw new IndexOutOfBoundsException("Index: " + index);
     }
 
     @Override
@@ -50,6 +60,27 @@ public class IfClause extends ASTNode {
 
         return this;
     }
+
+    @Override
+    public ASTNode replaceChild(int index, ASTNode child) {
+        if (index == 0)
+            conditionalExpression = (Expression) child;
+        else if (index == body.size() + 1 && elseClause != null)
+            elseClause = (ElseClause) child;
+        else
+            body.set(index - 1, child);
+        return this;
+    }
+    /*
+     Only splices the body, between the condition and the else clause.
+     */
+    @Override
+    public ASTNode spliceChildren(int from, int to, List<? extends ASTNode> children) {
+        if (from < 1 || to > body.size() + 1)
+            throw new IndexOutOfBoundsException("Can only splice the body, from: " + from + " to: " + to);
+        splice(body, from - 1, to - 1, children);
+        return this;
+    }
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,4 +1,9 @@
 package nl.han.ica.icss.ast;
 
 public abstract class Literal extends Expression {
+
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitLiteral(this);
+    }
 }
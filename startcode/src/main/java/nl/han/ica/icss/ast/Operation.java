@@ -1,20 +1,36 @@
 package nl.han.ica.icss.ast;
 
-import java.util.ArrayList;
-
 public abstract class Operation extends Expression {
 
     public Expression lhs;
     public Expression rhs;
 
     @Override
-    public ArrayList<ASTNode> getChildren() {
-        ArrayList<ASTNode> children = new ArrayList<>();
-        if(lhs != null)
-            children.add(lhs);
-        if(rhs != null)
-            children.add(rhs);
-        return children;
+    public int childCount() {
+        return (lhs != null ? 1 : 0) + (rhs != null ? 1 : 0);
+    }
+
+    @Override
+    public ASTNode childAt(int index) {
+        if(index == 0 && lhs != null)
+            return lhs;
+        if(index == childCount() - 1 && rhs != null)
+            return rhs;
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    @Override
+    public ASTNode replaceChild(int index, ASTNode child) {
+        if(index == 0 && lhs != null)
+            lhs = (Expression) child;
+        else if(childAt(index) == rhs)
+            rhs = (Expression) child;
+        return this;
+    }
+
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitOperation(this);
     }
 
     @Override
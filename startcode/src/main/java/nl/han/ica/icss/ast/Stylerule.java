@@ -1,9 +1,10 @@
 package nl.han.ica.icss.ast;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
-public class Stylerule extends ASTNode {
+public class Stylerule extends ASTNode implements BodyContainer {
 	
 	public ArrayList<Selector> selectors = new ArrayList<>();
 	public ArrayList<ASTNode> body = new ArrayList<>();
@@ -21,13 +22,20 @@ public class Stylerule extends ASTNode {
 	public String getNodeLabel() {
 		return "Stylerule";
 	}
-	@Override
-	public ArrayList<ASTNode> getChildren() {
-		ArrayList<ASTNode> children = new ArrayList<>();
-		children.addAll(selectors);
-		children.addAll(body);
 
-		return children;
+	@Override
+	public <R> R accept(ASTVisitor<R> visitor) {
+		return visitor.visitStylerule(this);
+	}
+	@Override
+	public int childCount() {
+		return selectors.size() + body.size();
+	}
+	@Override
+	public ASTNode childAt(int index) {
+		if (index < selectors.size())
+			return selectors.get(index);
+		return body.get(index - selectors.size());
 	}
 
     @Override
@@ -39,6 +47,26 @@ public class Stylerule extends ASTNode {
 
 		return this;
     }
+
+	@Override
+	public ASTNode replaceChild(int index, ASTNode child) {
+		if (index < selectors.size()) {
+			selectors.set(index, (Selector) child);
+			return this;
+		}
+		body.set(index - selectors.size(), child);
+		return this;
+	}
+	/*
+	 Only splices the body; the range must not include selectors.
+	 */
+	@Override
+	public ASTNode spliceChildren(int from, int to, List<? extends ASTNode> children) {
+		if (from < selectors.size())
+			throw new IndexOutOfBoundsException("Cannot splice selectors, from: " + from);
+		splice(body, from - selectors.size(), to - selectors.size(), children);
+		return this;
+	}
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -3,13 +3,14 @@ package nl.han.ica.icss.ast;
 import nl.han.ica.icss.checker.SemanticError;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * A stylesheet is the root node of the AST, it consists of one or more statements
  *
  */
-public class Stylesheet extends ASTNode {
+public class Stylesheet extends ASTNode implements BodyContainer {
 
 
 	public ArrayList<ASTNode> body;
@@ -24,11 +25,24 @@ public class Stylesheet extends ASTNode {
 	public String getNodeLabel() {
 		return "Stylesheet";
 	}
+
+	@Override
+	public <R> R accept(ASTVisitor<R> visitor) {
+		return visitor.visitStylesheet(this);
+	}
 	@Override
 	public ArrayList<ASTNode> getChildren() {
 		return this.body;
 	}
 	@Override
+	public int childCount() {
+		return body.size();
+	}
+	@Override
+	public ASTNode childAt(int index) {
+		return body.get(index);
+	}
+	@Override
 	public ASTNode addChild(ASTNode child) {
 	    	body.add(child);
 	    	return this;
@@ -38,6 +52,16 @@ public class Stylesheet extends ASTNode {
 		body.remove(child);
 		return this;
 	}
+	@Override
+	public ASTNode replaceChild(int index, ASTNode child) {
+		body.set(index, child);
+		return this;
+	}
+	@Override
+	public ASTNode spliceChildren(int from, int to, List<? extends ASTNode> children) {
+		splice(body, from, to, children);
+		return this;
+	}
 
 	@Override
 	public boolean equals(Object o) {
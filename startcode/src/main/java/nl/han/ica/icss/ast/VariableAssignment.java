@@ -1,6 +1,5 @@
 package nl.han.ica.icss.ast;
 
-import java.util.ArrayList;
 import java.util.Objects;
 
 /**
@@ -11,12 +10,20 @@ public class VariableAssignment extends ASTNode {
 	
 	public VariableReference name;
 	public Expression expression;
+	// frame coordinate of the variable, assigned by VariableResolver; -1 when not resolved
+	public int depth = -1;
+	public int slot = -1;
 
 	@Override
 	public String getNodeLabel() {
 		return "VariableAssignment (" + name.name + ")";
 	}
 
+	@Override
+	public <R> R accept(ASTVisitor<R> visitor) {
+		return visitor.visitVariableAssignment(this);
+	}
+
 	@Override
 	public ASTNode addChild(ASTNode child) {
 		if(name == null) {
@@ -29,14 +36,26 @@ public class VariableAssignment extends ASTNode {
 	}
 
 	@Override
-	public ArrayList<ASTNode> getChildren() {
+	public int childCount() {
+		return (name != null ? 1 : 0) + (expression != null ? 1 : 0);
+	}
 
-		ArrayList<ASTNode> children = new ArrayList<>();
-		if(name != null)
-			children.add(name);
-		if(expression != null)
-			children.add(expression);
-		return children;
+	@Override
+	public ASTNode childAt(int index) {
+		if(index == 0 && name != null)
+			return name;
+		if(index == childCount() - 1 && expression != null)
+			return expression;
+		throw new IndexOutOfBoundsException("Index: " + index);
+	}
+
+	@Override
+	public ASTNode replaceChild(int index, ASTNode child) {
+		if(index == 0 && name != null)
+			name = (VariableReference) child;
+		else if(childAt(index) == expression)
+			expression = (Expression) child;
+		return this;
 	}
 
 	@Override
@@ -5,6 +5,8 @@ import java.util.Objects;
 public class VariableReference extends Expression {
 
 	public String name;
+	// the assignment that introduced the referenced variable, set by VariableResolver; null when undefined
+	public VariableAssignment assignment;
 	
 	public VariableReference(String name) {
 		super();
@@ -16,6 +18,11 @@ public class VariableReference extends Expression {
 		return "VariableReference (" + name + ")";
 	}
 
+	@Override
+	public <R> R accept(ASTVisitor<R> visitor) {
+		return visitor.visitVariableReference(this);
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
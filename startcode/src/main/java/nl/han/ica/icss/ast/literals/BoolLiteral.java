@@ -1,10 +1,11 @@
 package nl.han.ica.icss.ast.literals;
 
+import nl.han.ica.icss.ast.ASTVisitor;
 import nl.han.ica.icss.ast.Literal;
 import java.util.Objects;
 
 public class BoolLiteral extends Literal {
-    public boolean value;
+    public final boolean value;
 
     public BoolLiteral(boolean value) {
         this.value = value;
@@ -18,6 +19,11 @@ public class BoolLiteral extends Literal {
         return "Bool Literal (" + textValue + ")";
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitBoolLiteral(this);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
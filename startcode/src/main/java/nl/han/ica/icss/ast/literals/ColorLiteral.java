@@ -1,11 +1,12 @@
 package nl.han.ica.icss.ast.literals;
 
+import nl.han.ica.icss.ast.ASTVisitor;
 import nl.han.ica.icss.ast.Literal;
 
 import java.util.Objects;
 
 public class ColorLiteral extends Literal {
-    public String value;
+    public final String value;
 
     public ColorLiteral(String value) {
         this.value = value;
@@ -15,6 +16,11 @@ public class ColorLiteral extends Literal {
         return "Color literal (" + value + ")";
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitColorLiteral(this);
+    }
+
 
     @Override
     public boolean equals(Object o) {
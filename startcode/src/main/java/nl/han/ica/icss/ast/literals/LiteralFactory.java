@@ -0,0 +1,110 @@
+package nl.han.ica.icss.ast.literals;
+
+/**
+ * Hands out shared literal instances. Small pixel, percentage and scalar values and both booleans come
+ * from tables filled at class load, colors from a bounded intern table. Literals obtained here may appear
+ * in several places of an AST and in several ASTs at once, so they must never be modified.
+ */
+public final class LiteralFactory {
+
+    // values 0 up to and including MAX_CACHED_VALUE are interned
+    public static final int MAX_CACHED_VALUE = 256;
+    // the color table has 2^COLOR_TABLE_BITS slots
+    private static final int COLOR_TABLE_BITS = 10;
+
+    private static final PixelLiteral[] PIXELS = new PixelLiteral[MAX_CACHED_VALUE + 1];
+    private static final PercentageLiteral[] PERCENTAGES = new PercentageLiteral[MAX_CACHED_VALUE + 1];
+    private static final ScalarLiteral[] SCALARS = new ScalarLiteral[MAX_CACHED_VALUE + 1];
+    private static final BoolLiteral TRUE = new BoolLiteral(true);
+    private static final BoolLiteral FALSE = new BoolLiteral(false);
+
+    // direct mapped: a color replaces whatever other color hashed to its slot, so the table never grows
+    private static final ColorLiteral[] COLORS = new ColorLiteral[1 << COLOR_TABLE_BITS];
+
+    static {
+        for (int i = 0; i <= MAX_CACHED_VALUE; i++) {
+            PIXELS[i] = new PixelLiteral(i);
+            PERCENTAGES[i] = new PercentageLiteral(i);
+            SCALARS[i] = new ScalarLiteral(i);
+        }
+    }
+
+    private LiteralFactory() {
+    }
+
+    public static PixelLiteral pixel(int value) {
+        return isCached(value) ? PIXELS[value] : new PixelLiteral(value);
+    }
+
+    public static PercentageLiteral percentage(int value) {
+        return isCached(value) ? PERCENTAGES[value] : new PercentageLiteral(value);
+    }
+
+    public static ScalarLiteral scalar(int value) {
+        return isCached(value) ? SCALARS[value] : new ScalarLiteral(value);
+    }
+
+    public static BoolLiteral bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    public static ColorLiteral color(String value) {
+        int slot = (value.hashCode() * 0x9E3779B9) >>> (32 - COLOR_TABLE_BITS);
+        // racing threads may overwrite each other's entry; literals only have final fields, so any entry read is complete
+        ColorLiteral color = COLORS[slot];
+        if (color == null || !color.value.equals(value)) {
+            color = new ColorLiteral(value);
+            COLORS[slot] = color;
+        }
+        return color;
+    }
+
+    /**
+     * Parses pixel text like "10px" without creating a substring
+     * @param text the text of a PIXELSIZE token
+     * @return the shared literal
+     */
+    public static PixelLiteral parsePixel(String text) {
+        return pixel(parseDigits(text, text.length() - 2));
+    }
+
+    /**
+     * @param text the text of a PERCENTAGE token, like "50%"
+     * @return the shared literal
+     */
+    public static PercentageLiteral parsePercentage(String text) {
+        return percentage(parseDigits(text, text.length() - 1));
+    }
+
+    /**
+     * @param text the text of a SCALAR token
+     * @return the shared literal
+     */
+    public static ScalarLiteral parseScalar(String text) {
+        return scalar(parseDigits(text, text.length()));
+    }
+
+    /**
+     * @param text TRUE or FALSE
+     * @return the shared literal
+     */
+    public static BoolLiteral parseBool(String text) {
+        return bool(text.equals("TRUE"));
+    }
+
+    private static boolean isCached(int value) {
+        return value >= 0 && value <= MAX_CACHED_VALUE;
+    }
+
+    // the lexer only produces [0-9]+ before the unit; anything longer than an int falls back to parseInt
+    private static int parseDigits(String text, int end) {
+        if (end > 9) {
+            return Integer.parseInt(text.substring(0, end));
+        }
+        int value = 0;
+        for (int i = 0; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -1,11 +1,12 @@
 package nl.han.ica.icss.ast.literals;
 
+import nl.han.ica.icss.ast.ASTVisitor;
 import nl.han.ica.icss.ast.Literal;
 
 import java.util.Objects;
 
 public class PercentageLiteral extends Literal {
-    public int value;
+    public final int value;
 
     public PercentageLiteral(int value) {
         this.value = value;
@@ -18,6 +19,11 @@ public class PercentageLiteral extends Literal {
         return "Percentage literal (" + value + ")";
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitPercentageLiteral(this);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,5 +1,6 @@
 package nl.han.ica.icss.ast.selectors;
 
+import nl.han.ica.icss.ast.ASTVisitor;
 import nl.han.ica.icss.ast.Selector;
 
 import java.util.Objects;
@@ -16,6 +17,11 @@ public class ClassSelector extends Selector {
         return "ClassSelector " + cls;
     }
 
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitClassSelector(this);
+    }
+
     public String toString() {
         return cls;
     }
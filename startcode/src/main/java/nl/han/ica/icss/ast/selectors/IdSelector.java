@@ -1,5 +1,6 @@
 package nl.han.ica.icss.ast.selectors;
 
+import nl.han.ica.icss.ast.ASTVisitor;
 import nl.han.ica.icss.ast.Selector;
 
 import java.util.Objects;
@@ -14,6 +15,11 @@ public class IdSelector extends Selector {
     public String getNodeLabel() {
         return "IdSelector " + id;
     }
+
+    @Override
+    public <R> R accept(ASTVisitor<R> visitor) {
+        return visitor.visitIdSelector(this);
+    }
     public String toString() {
         return id;
     }
@@ -1,152 +1,427 @@
 package nl.han.ica.icss.checker;
 
-import nl.han.ica.HANLinkedList;
-import nl.han.ica.datastructures.IHANLinkedList;
+import nl.han.ica.HANPersistentScope;
+import nl.han.ica.HANSymbolTable;
+import nl.han.ica.datastructures.IHANScope;
+import nl.han.ica.datastructures.IHANSymbolTable;
 import nl.han.ica.icss.ast.*;
 import nl.han.ica.icss.ast.literals.*;
 import nl.han.ica.icss.ast.operations.AddOperation;
-import nl.han.ica.icss.ast.operations.MultiplyOperation;
 import nl.han.ica.icss.ast.operations.SubtractOperation;
 import nl.han.ica.icss.ast.types.ExpressionType;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 
 
 public class Checker {
 
-    private IHANLinkedList<HashMap<String, ExpressionType>> variableTypes;
+    // below this number of style rules a parallel check runs sequentially
+    public static final int PARALLEL_THRESHOLD = 1024;
+    // number of style rules checked by one fork/join leaf task
+    private static final int RULES_PER_TASK = 256;
+
+    private IHANSymbolTable<ExpressionType> variableTypes;
+    // type of every checked expression, computed exactly once in post-order
+    private Map<Expression, ExpressionType> expressionTypes;
+    // global variables visible to the node being checked, only used by parallel and incremental checks
+    private Function<String, ExpressionType> globals;
+    // when not null, every variable name the check reads is added here
+    private Set<String> readVariables;
+    private boolean parallel;
+    private ErrorCollector errorCollector;
+    private PropertySchema propertySchema;
 
     public Checker() {
-        variableTypes = new HANLinkedList<>();
+        variableTypes = new HANSymbolTable<>();
+        expressionTypes = new IdentityHashMap<>();
+        errorCollector = new SemanticErrorCollector();
+        propertySchema = PropertySchema.getDefault();
+    }
+
+    /**
+     * Declarations are validated against schema instead of the default property-schema.txt
+     * @param propertySchema allowed value types per property
+     */
+    public void setPropertySchema(PropertySchema propertySchema) {
+        this.propertySchema = propertySchema;
+    }
+
+    /**
+     * Errors are pushed into collector as soon as they are found. Checking stops once it is full
+     * @param errorCollector receives the errors of the next check
+     */
+    public void setErrorCollector(ErrorCollector errorCollector) {
+        this.errorCollector = errorCollector;
+    }
+
+    public ErrorCollector getErrorCollector() {
+        return errorCollector;
+    }
+
+    /**
+     * In parallel mode the style rules of large stylesheets are checked on the common ForkJoinPool
+     * @param parallel true to check large stylesheets in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
     }
 
     public void check(AST ast) {
-        variableTypes.addFirst(new HashMap<>());
-        checkNode(ast.root);
+        try {
+            if (parallel && countStylerules(ast.root) >= PARALLEL_THRESHOLD) {
+                checkParallel(ast.root);
+            } else {
+                checkNode(ast.root);
+            }
+        } catch (CheckAbortedException e) {
+            // the error collector is full, the rest of the tree is skipped
+        }
     }
 
-    private void checkNode(ASTNode node) {
+    // thrown to unwind the traversal when the error collector is full
+    private static class CheckAbortedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
 
-        // deze checkt of variablen alleen binnen scope gebruikt worden
-        if (node instanceof Stylerule || node instanceof IfClause || node instanceof ElseClause) {
-            // Enter a new scope for blocks like Stylerule and IfClause
-            variableTypes.addFirst(new HashMap<>());
+        CheckAbortedException() {
+            super(null, null, false, false);
         }
+    }
 
-        // deze checkt of de variabelen bestaan
-        if (node instanceof VariableAssignment) {
-            // Variable assignment: track the variable in the current scope
-            String variableName = ((VariableAssignment) node).name.name;
-            ExpressionType expressionType = inferExpressionType(((VariableAssignment) node).expression);
-            variableTypes.getFirst().put(variableName, expressionType);
-        } else if (node instanceof VariableReference) {
-            // Check if the variable has been defined in any scope
-            String variableName = ((VariableReference) node).name;
-            if (!isVariableDefined(variableName)) {
-                node.setError("Variable " + variableName + " is not defined.");
+    private void report(ASTNode node, String description) {
+        node.setError(description);
+        errorCollector.add(node.getError());
+        if (errorCollector.isFull()) {
+            throw new CheckAbortedException();
+        }
+    }
+
+    /*
+     Top-level assignments are resolved first, in source order. Every style rule then gets a snapshot
+     of the globals assigned before it and is checked by a separate Checker with its own local scopes.
+     The errors of every top-level node are buffered and handed to the error collector in source order,
+     so the collector sees the same errors as in a sequential check.
+     */
+    private void checkParallel(Stylesheet stylesheet) {
+        int nodeCount = stylesheet.body.size();
+        List<Stylerule> rules = new ArrayList<>();
+        List<IHANScope<String, ExpressionType>> visibleGlobals = new ArrayList<>();
+        int[] ruleIndices = new int[nodeCount];
+        SemanticErrorCollector[] bufferedErrors = new SemanticErrorCollector[nodeCount];
+        // fail-fast checks skip every rule after the first node with an error
+        AtomicInteger firstFailedNode = new AtomicInteger(Integer.MAX_VALUE);
+        ErrorCollector collector = errorCollector;
+
+        IHANScope<String, ExpressionType> snapshot = new HANPersistentScope<>();
+        for (int i = 0; i < nodeCount; i++) {
+            ASTNode node = stylesheet.body.get(i);
+            bufferedErrors[i] = new SemanticErrorCollector(Integer.MAX_VALUE, collector.isFailFast());
+            if (node instanceof Stylerule) {
+                ruleIndices[rules.size()] = i;
+                rules.add((Stylerule) node);
+                visibleGlobals.add(snapshot);
+            } else {
+                errorCollector = bufferedErrors[i];
+                checkTopLevelNode(node);
+                if (!bufferedErrors[i].getErrors().isEmpty()) {
+                    firstFailedNode.accumulateAndGet(i, Math::min);
+                }
+                if (node instanceof VariableAssignment) {
+                    String name = ((VariableAssignment) node).name.name;
+                    snapshot = snapshot.define(name, variableTypes.lookup(name));
+                }
             }
         }
-        // deze checkt of kleuren in sommen zitten
-        if (node instanceof AddOperation || node instanceof SubtractOperation || node instanceof MultiplyOperation) {
-            // Color literals are not allowed in these operations
-            Expression left = ((Operation) node).lhs;
-            Expression right = ((Operation) node).rhs;
+        errorCollector = collector;
 
-            if (inferExpressionType(left) == ExpressionType.COLOR || inferExpressionType(right) == ExpressionType.COLOR) {
-                node.setError("Colors cannot be used in arithmetic operations.");
+        int taskCount = (rules.size() + RULES_PER_TASK - 1) / RULES_PER_TASK;
+        Checker[] ruleCheckers = new Checker[taskCount];
+        ForkJoinPool.commonPool().invoke(new CheckRulesTask(rules, visibleGlobals, ruleIndices, bufferedErrors,
+                collector.isFailFast() ? firstFailedNode : null, propertySchema, ruleCheckers, 0, taskCount));
+        for (Checker ruleChecker : ruleCheckers) {
+            expressionTypes.putAll(ruleChecker.expressionTypes);
+        }
+        for (SemanticErrorCollector buffer : bufferedErrors) {
+            for (SemanticError error : buffer.getErrors()) {
+                collector.add(error);
+                if (collector.isFull()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // checks one top-level node; when its buffer is full only that node is abandoned
+    private void checkTopLevelNode(ASTNode node) {
+        try {
+            checkNode(node);
+        } catch (CheckAbortedException e) {
+            while (variableTypes.getDepth() > 0) {
+                variableTypes.exitScope();
             }
         }
-        // deze checkt of de waardes wel het zelfde zijn dus px + px
-        if (node instanceof Declaration) {
-            Declaration declaration = (Declaration) node;
-            String propertyName = declaration.property.name;
-            ExpressionType valueType = inferExpressionType(declaration.expression);
+    }
+
+    /*
+     Checks a single top-level node of a stylesheet for IncrementalChecker. visibleGlobals resolves the global
+     variables assigned before the node, readVariables receives every variable name the node reads.
+     Returns the type assigned by a VariableAssignment, null for other nodes.
+     */
+    ExpressionType checkTopLevelNode(ASTNode node, Function<String, ExpressionType> visibleGlobals, Set<String> readVariables) {
+        this.globals = visibleGlobals;
+        this.readVariables = readVariables;
+        checkTopLevelNode(node);
+        if (node instanceof VariableAssignment) {
+            ExpressionType type = variableTypes.lookup(((VariableAssignment) node).name.name);
+            return type == null ? ExpressionType.UNDEFINED : type;
+        }
+        return null;
+    }
+
+    private static class CheckRulesTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
 
-            // Check based on property name
-            if (propertyName.equals("width") || propertyName.equals("height")) {
-                if (valueType != ExpressionType.PIXEL) {
-                    node.setError(propertyName + " must have a pixel value.");
+        private final List<Stylerule> rules;
+        private final List<IHANScope<String, ExpressionType>> visibleGlobals;
+        private final int[] ruleIndices;
+        private final SemanticErrorCollector[] bufferedErrors;
+        private final AtomicInteger firstFailedNode;
+        private final PropertySchema propertySchema;
+        private final Checker[] ruleCheckers;
+        private final int fromTask;
+        private final int toTask;
+
+        CheckRulesTask(List<Stylerule> rules, List<IHANScope<String, ExpressionType>> visibleGlobals,
+                       int[] ruleIndices, SemanticErrorCollector[] bufferedErrors, AtomicInteger firstFailedNode,
+                       PropertySchema propertySchema, Checker[] ruleCheckers, int fromTask, int toTask) {
+            this.rules = rules;
+            this.visibleGlobals = visibleGlobals;
+            this.ruleIndices = ruleIndices;
+            this.bufferedErrors = bufferedErrors;
+            this.firstFailedNode = firstFailedNode;
+            this.propertySchema = propertySchema;
+            this.ruleCheckers = ruleCheckers;
+            this.fromTask = fromTask;
+            this.toTask = toTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTask - fromTask > 1) {
+                int middle = (fromTask + toTask) >>> 1;
+                invokeAll(new CheckRulesTask(rules, visibleGlobals, ruleIndices, bufferedErrors, firstFailedNode, propertySchema, ruleCheckers, fromTask, middle),
+                        new CheckRulesTask(rules, visibleGlobals, ruleIndices, bufferedErrors, firstFailedNode, propertySchema, ruleCheckers, middle, toTask));
+                return;
+            }
+            Checker checker = new Checker();
+            checker.propertySchema = propertySchema;
+            int end = Math.min(rules.size(), (fromTask + 1) * RULES_PER_TASK);
+            for (int i = fromTask * RULES_PER_TASK; i < end; i++) {
+                int nodeIndex = ruleIndices[i];
+                if (firstFailedNode != null && nodeIndex > firstFailedNode.get()) {
+                    break;
                 }
-            } else if (propertyName.equals("color")) {
-                if (valueType != ExpressionType.COLOR) {
-                    node.setError("color must have a color value.");
+                checker.globals = visibleGlobals.get(i)::lookup;
+                checker.errorCollector = bufferedErrors[nodeIndex];
+                checker.checkTopLevelNode(rules.get(i));
+                if (firstFailedNode != null && !bufferedErrors[nodeIndex].getErrors().isEmpty()) {
+                    firstFailedNode.accumulateAndGet(nodeIndex, Math::min);
                 }
             }
+            ruleCheckers[fromTask] = checker;
         }
-        // deze checkt of de som wel klopt dus  10px + 10px en niet 10px + 10%
-        if (node instanceof AddOperation || node instanceof SubtractOperation) {
-            // Both sides of the operation should have the same type
-            Expression left = ((Operation) node).lhs;
-            Expression right = ((Operation) node).rhs;
+    }
+
+    private static int countStylerules(Stylesheet stylesheet) {
+        int count = 0;
+        for (ASTNode node : stylesheet.body) {
+            if (node instanceof Stylerule) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the type the last check computed for expression
+     * @param expression an expression of the checked AST
+     * @return its type, or UNDEFINED when the expression was not checked
+     */
+    public ExpressionType getExpressionType(Expression expression) {
+        return expressionTypes.getOrDefault(expression, ExpressionType.UNDEFINED);
+    }
 
-            ExpressionType leftType = inferExpressionType(left);
-            ExpressionType rightType = inferExpressionType(right);
+    private void checkNode(ASTNode node) {
+        node.accept(nodeChecker);
+    }
 
-            if (leftType != rightType) {
-                node.setError("Operands of " + (node instanceof AddOperation ? "+" : "-") + " must be of the same type.");
+    /*
+     Checks statements. Style rules and if/else bodies open a scope; expressions are handed to checkExpression.
+     */
+    private final ASTVisitor<Void> nodeChecker = new ASTVisitor<Void>() {
+        @Override
+        public Void visitNode(ASTNode node) {
+            // Recursively check child nodes
+            for (int i = 0; i < node.childCount(); i++) {
+                node.childAt(i).accept(this);
             }
+            return null;
+        }
+
+        @Override
+        public Void visitStylerule(Stylerule node) {
+            return visitScope(node);
+        }
+
+        @Override
+        public Void visitIfClause(IfClause node) {
+            return visitScope(node);
+        }
+
+        @Override
+        public Void visitElseClause(ElseClause node) {
+            return visitScope(node);
+        }
+
+        // deze checkt of variablen alleen binnen scope gebruikt worden
+        private Void visitScope(ASTNode node) {
+            variableTypes.enterScope();
+            visitNode(node);
+            variableTypes.exitScope();
+            return null;
         }
 
+        @Override
+        public Void visitVariableAssignment(VariableAssignment node) {
+            // Variable assignment: track the variable in the current scope
+            ExpressionType expressionType = checkExpression(node.expression);
+            variableTypes.define(node.name.name, expressionType);
+            return null;
+        }
 
+        @Override
+        public Void visitDeclaration(Declaration node) {
+            checkDeclaration(node);
+            return null;
+        }
 
-        // Recursively check child nodes
-        for (ASTNode child : node.getChildren()) {
-            checkNode(child);
+        @Override
+        public Void visitExpression(Expression node) {
+            checkExpression(node);
+            return null;
         }
-        if (node instanceof Stylerule || node instanceof IfClause || node instanceof ElseClause) {
-            // Leave the scope when exiting the block
-            variableTypes.removeFirst();
+    };
+
+    // deze checkt of de waardes wel het zelfde zijn dus px + px
+    private void checkDeclaration(Declaration declaration) {
+        String propertyName = declaration.property.name;
+        ExpressionType valueType = checkExpression(declaration.expression);
+
+        // Check based on property name, one probe in the schema plus a bit test
+        int allowedTypes = propertySchema.allowedTypes(propertyName);
+        if ((allowedTypes & PropertySchema.bit(valueType)) == 0) {
+            report(declaration, propertyName + " must have a " + PropertySchema.describe(allowedTypes) + " value.");
         }
     }
 
-    private boolean isVariableDefined(String variableName) {
-        for (int i = 0; i < variableTypes.getSize(); i++) {
-            HashMap<String, ExpressionType> scope = variableTypes.get(i);
-            if (scope.containsKey(variableName)) {
-                return true;
+    /*
+     Checks expression bottom-up and returns its type. Operands are typed before their operation,
+     so every node is visited once and long expression chains check in linear time.
+     */
+    private ExpressionType checkExpression(Expression expression) {
+        ExpressionType type = expression.accept(expressionChecker);
+        expressionTypes.put(expression, type);
+        return type;
+    }
+
+    private final ASTVisitor<ExpressionType> expressionChecker = new ASTVisitor<ExpressionType>() {
+        @Override
+        public ExpressionType visitNode(ASTNode node) {
+            return ExpressionType.UNDEFINED;
+        }
+
+        @Override
+        public ExpressionType visitOperation(Operation node) {
+            return checkOperation(node);
+        }
+
+        @Override
+        public ExpressionType visitVariableReference(VariableReference node) {
+            // Check if the variable has been defined in any scope
+            ExpressionType type = lookupVariable(node.name);
+            if (type == null) {
+                report(node, "Variable " + node.name + " is not defined.");
+                type = ExpressionType.UNDEFINED;
             }
+            return type;
         }
-        return false;
-    }
 
-    private ExpressionType inferExpressionType(Expression expression) {
-        // Determine the type of the expression (PIXEL, PERCENTAGE, etc.)
-        if (expression instanceof PixelLiteral) {
+        @Override
+        public ExpressionType visitPixelLiteral(PixelLiteral node) {
             return ExpressionType.PIXEL;
-        } else if (expression instanceof PercentageLiteral) {
+        }
+
+        @Override
+        public ExpressionType visitPercentageLiteral(PercentageLiteral node) {
             return ExpressionType.PERCENTAGE;
-        } else if (expression instanceof ScalarLiteral) {
+        }
+
+        @Override
+        public ExpressionType visitScalarLiteral(ScalarLiteral node) {
             return ExpressionType.SCALAR;
-        } else if (expression instanceof ColorLiteral) {
+        }
+
+        @Override
+        public ExpressionType visitColorLiteral(ColorLiteral node) {
             return ExpressionType.COLOR;
-        } else if (expression instanceof BoolLiteral) {
+        }
+
+        @Override
+        public ExpressionType visitBoolLiteral(BoolLiteral node) {
             return ExpressionType.BOOL;
-        } else if (expression instanceof VariableReference) {
-            // Get the type of the referenced variable
-            String variableName = ((VariableReference) expression).name;
-            for (int i = 0; i < variableTypes.getSize(); i++) {
-                HashMap<String, ExpressionType> scope = variableTypes.get(i);
-                if (scope.containsKey(variableName)) {
-                    return scope.get(variableName);
-                }
-            }
-            //dit fixt dat sommen van variabelen niet werken dus parwidth + 2 * 10px
-        } else if (expression instanceof Operation) {
-            ExpressionType leftType = inferExpressionType(((Operation) expression).lhs);
-            ExpressionType rightType = inferExpressionType(((Operation) expression).rhs);
-            if (leftType == rightType) {
-                return leftType;
-            } else if (leftType == ExpressionType.SCALAR && rightType == ExpressionType.PIXEL) {
-                return ExpressionType.PIXEL;
-            } else if (leftType == ExpressionType.PIXEL && rightType == ExpressionType.SCALAR) {
-                return ExpressionType.PIXEL;
-            }
+        }
+    };
 
+    private ExpressionType lookupVariable(String variableName) {
+        if (readVariables != null) {
+            readVariables.add(variableName);
         }
-        return ExpressionType.UNDEFINED;
+        ExpressionType type = variableTypes.lookup(variableName);
+        if (type == null && globals != null) {
+            type = globals.apply(variableName);
+        }
+        return type;
     }
 
+    private ExpressionType checkOperation(Operation operation) {
+        ExpressionType leftType = checkExpression(operation.lhs);
+        ExpressionType rightType = checkExpression(operation.rhs);
 
+        // one error per operation: a mismatch of + or - operands takes precedence, like it always did
+        // deze checkt of de som wel klopt dus  10px + 10px en niet 10px + 10%
+        if ((operation instanceof AddOperation || operation instanceof SubtractOperation) && leftType != rightType) {
+            report(operation, "Operands of " + (operation instanceof AddOperation ? "+" : "-") + " must be of the same type.");
+        // deze checkt of kleuren in sommen zitten
+        } else if (leftType == ExpressionType.COLOR || rightType == ExpressionType.COLOR) {
+            report(operation, "Colors cannot be used in arithmetic operations.");
+        }
 
-}
\ No newline at end of file
+        //dit fixt dat sommen van variabelen niet werken dus parwidth + 2 * 10px
+        if (leftType == rightType) {
+            return leftType;
+        } else if (leftType == ExpressionType.SCALAR && rightType == ExpressionType.PIXEL) {
+            return ExpressionType.PIXEL;
+        } else if (leftType == ExpressionType.PIXEL && rightType == ExpressionType.SCALAR) {
+            return ExpressionType.PIXEL;
+        }
+        return ExpressionType.UNDEFINED;
+    }
+}
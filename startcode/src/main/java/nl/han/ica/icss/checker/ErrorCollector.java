@@ -0,0 +1,27 @@
+package nl.han.ica.icss.checker;
+
+/**
+ * Receives semantic errors while the checker is still traversing the AST.
+ */
+public interface ErrorCollector {
+
+    /**
+     * Called for every error, in the order the errors are found
+     * @param error the error found
+     */
+    void add(SemanticError error);
+
+    /**
+     * The checker stops traversing the AST as soon as the collector is full
+     * @return true when no more errors are wanted
+     */
+    boolean isFull();
+
+    /**
+     * A fail-fast collector is full after the first error
+     * @return true when the first error ends the check
+     */
+    default boolean isFailFast() {
+        return false;
+    }
+}
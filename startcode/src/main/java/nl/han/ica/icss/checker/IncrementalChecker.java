@@ -0,0 +1,267 @@
+package nl.han.ica.icss.checker;
+
+import nl.han.ica.icss.ast.AST;
+import nl.han.ica.icss.ast.ASTNode;
+import nl.han.ica.icss.ast.Literal;
+import nl.han.ica.icss.ast.VariableAssignment;
+import nl.han.ica.icss.ast.types.ExpressionType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Checks a stylesheet once and afterwards re-checks only what an edit can affect.
+ * Every top-level node (style rule or global assignment) remembers the variables it reads and the errors
+ * it produced. After an edit only the top-level nodes containing changed nodes, and the nodes reading a
+ * global variable whose type changed, are checked again; all other results are reused.
+ */
+public class IncrementalChecker {
+
+    private AST ast;
+    private PropertySchema propertySchema = PropertySchema.getDefault();
+
+    // top-level nodes of the last check, with their position in the stylesheet body
+    private List<ASTNode> topLevelNodes = new ArrayList<>();
+    private Map<ASTNode, Integer> positions = new IdentityHashMap<>();
+    // every checked node mapped to the top-level node that contains it
+    private Map<ASTNode, ASTNode> owners = new IdentityHashMap<>();
+
+    private Map<ASTNode, List<SemanticError>> errors = new IdentityHashMap<>();
+    private Map<ASTNode, Set<String>> reads = new IdentityHashMap<>();
+    private Map<String, Set<ASTNode>> readers = new HashMap<>();
+    // global assignments per variable name, in source order
+    private Map<String, List<VariableAssignment>> definitions = new HashMap<>();
+    private Map<ASTNode, ExpressionType> assignedTypes = new IdentityHashMap<>();
+
+    private int recheckedCount;
+
+    public void setPropertySchema(PropertySchema propertySchema) {
+        this.propertySchema = propertySchema;
+    }
+
+    /**
+     * Checks the whole AST and remembers the results for later re-checks
+     * @param ast the AST to check
+     * @return all semantic errors in source order
+     */
+    public List<SemanticError> check(AST ast) {
+        this.ast = ast;
+        topLevelNodes = new ArrayList<>();
+        positions = new IdentityHashMap<>();
+        owners = new IdentityHashMap<>();
+        errors = new IdentityHashMap<>();
+        reads = new IdentityHashMap<>();
+        readers = new HashMap<>();
+        definitions = new HashMap<>();
+        assignedTypes = new IdentityHashMap<>();
+        index();
+        recheckedCount = 0;
+        for (ASTNode node : topLevelNodes) {
+            checkTopLevelNode(node);
+        }
+        return getErrors();
+    }
+
+    /**
+     * Re-checks after the AST was edited in place. Pass the Stylesheet itself as a changed node when
+     * top-level nodes were added, removed or reordered. Other changed nodes must have been part of the
+     * previous check; for a new node inside a rule pass the node it was added to.
+     * @param changedNodes nodes that were edited
+     * @param changedVariables names of variables whose value or type may have changed
+     * @return all semantic errors in source order
+     */
+    public List<SemanticError> recheck(Collection<? extends ASTNode> changedNodes, Collection<String> changedVariables) {
+        if (ast == null) {
+            throw new IllegalStateException("check() must run before recheck().");
+        }
+        Set<String> changed = new HashSet<>(changedVariables);
+        TreeMap<Integer, ASTNode> dirty = new TreeMap<>();
+
+        if (changedNodes.contains(ast.root)) {
+            reindex(dirty, changed);
+        }
+        for (ASTNode node : changedNodes) {
+            ASTNode owner = owners.get(node);
+            if (owner != null && positions.containsKey(owner)) {
+                dirty.put(positions.get(owner), owner);
+            }
+        }
+        for (String name : changed) {
+            markReaders(name, -1, dirty);
+        }
+
+        // in source order, so a changed global type reaches the later readers before they are checked
+        recheckedCount = 0;
+        while (!dirty.isEmpty()) {
+            Map.Entry<Integer, ASTNode> next = dirty.pollFirstEntry();
+            ASTNode node = next.getValue();
+            ExpressionType oldType = assignedTypes.get(node);
+            checkTopLevelNode(node);
+            if (node instanceof VariableAssignment && assignedTypes.get(node) != oldType) {
+                markReaders(((VariableAssignment) node).name.name, next.getKey(), dirty);
+            }
+        }
+        return getErrors();
+    }
+
+    /**
+     * Errors of the last check or re-check
+     * @return all semantic errors in source order
+     */
+    public List<SemanticError> getErrors() {
+        List<ASTNode> failing = new ArrayList<>(errors.keySet());
+        failing.sort((a, b) -> Integer.compare(positions.get(a), positions.get(b)));
+        List<SemanticError> result = new ArrayList<>();
+        for (ASTNode node : failing) {
+            result.addAll(errors.get(node));
+        }
+        return result;
+    }
+
+    /**
+     * Number of top-level nodes the last check or re-check actually checked
+     * @return number of checked style rules and global assignments
+     */
+    public int getRecheckedCount() {
+        return recheckedCount;
+    }
+
+    private void checkTopLevelNode(ASTNode node) {
+        recheckedCount++;
+        forgetReads(node);
+        clearErrors(node, node);
+
+        SemanticErrorCollector collector = new SemanticErrorCollector();
+        Set<String> nodeReads = new HashSet<>();
+        int position = positions.get(node);
+        Checker checker = new Checker();
+        checker.setPropertySchema(propertySchema);
+        checker.setErrorCollector(collector);
+        ExpressionType type = checker.checkTopLevelNode(node, name -> lookupGlobal(name, position), nodeReads);
+
+        if (type != null) {
+            assignedTypes.put(node, type);
+        }
+        if (collector.getErrors().isEmpty()) {
+            errors.remove(node);
+        } else {
+            errors.put(node, collector.getErrors());
+        }
+        reads.put(node, nodeReads);
+        for (String name : nodeReads) {
+            readers.computeIfAbsent(name, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(node);
+        }
+    }
+
+    // type of the last global assignment to name before position
+    private ExpressionType lookupGlobal(String name, int position) {
+        List<VariableAssignment> assignments = definitions.get(name);
+        if (assignments == null) {
+            return null;
+        }
+        int low = 0;
+        int high = assignments.size() - 1;
+        VariableAssignment visible = null;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (positions.get(assignments.get(middle)) < position) {
+                visible = assignments.get(middle);
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return visible == null ? null : assignedTypes.get(visible);
+    }
+
+    private void markReaders(String name, int afterPosition, TreeMap<Integer, ASTNode> dirty) {
+        Set<ASTNode> nodes = readers.get(name);
+        if (nodes == null) {
+            return;
+        }
+        for (ASTNode node : nodes) {
+            int position = positions.get(node);
+            if (position > afterPosition) {
+                dirty.put(position, node);
+            }
+        }
+    }
+
+    private void index() {
+        for (ASTNode node : ast.root.body) {
+            positions.put(node, topLevelNodes.size());
+            topLevelNodes.add(node);
+            if (node instanceof VariableAssignment) {
+                definitions.computeIfAbsent(((VariableAssignment) node).name.name, key -> new ArrayList<>())
+                        .add((VariableAssignment) node);
+            }
+        }
+    }
+
+    /*
+     The stylesheet body changed: new top-level nodes are dirty, and variables assigned by added or
+     removed top-level assignments count as changed because their visibility moved.
+     */
+    private void reindex(TreeMap<Integer, ASTNode> dirty, Set<String> changed) {
+        Set<ASTNode> previous = Collections.newSetFromMap(new IdentityHashMap<>());
+        previous.addAll(topLevelNodes);
+        Set<ASTNode> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.addAll(ast.root.body);
+
+        for (ASTNode node : topLevelNodes) {
+            if (!current.contains(node)) {
+                forgetReads(node);
+                errors.remove(node);
+                assignedTypes.remove(node);
+                if (node instanceof VariableAssignment) {
+                    changed.add(((VariableAssignment) node).name.name);
+                }
+            }
+        }
+        topLevelNodes = new ArrayList<>();
+        positions = new IdentityHashMap<>();
+        definitions = new HashMap<>();
+        index();
+        for (ASTNode node : topLevelNodes) {
+            if (!previous.contains(node)) {
+                dirty.put(positions.get(node), node);
+                if (node instanceof VariableAssignment) {
+                    changed.add(((VariableAssignment) node).name.name);
+                }
+            }
+        }
+    }
+
+    private void forgetReads(ASTNode node) {
+        Set<String> nodeReads = reads.remove(node);
+        if (nodeReads == null) {
+            return;
+        }
+        for (String name : nodeReads) {
+            Set<ASTNode> nodes = readers.get(name);
+            nodes.remove(node);
+            if (nodes.isEmpty()) {
+                readers.remove(name);
+            }
+        }
+    }
+
+    // clears stale errors in the subtree and records its owner; literals are shared between owners and never change
+    private void clearErrors(ASTNode node, ASTNode owner) {
+        node.clearError();
+        if (!(node instanceof Literal)) {
+            owners.put(node, owner);
+        }
+        for (int i = 0; i < node.childCount(); i++) {
+            clearErrors(node.childAt(i), owner);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package nl.han.ica.icss.checker;
+
+import nl.han.ica.icss.ast.types.ExpressionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps property names to the value types they accept, as a bitmask over ExpressionType ordinals.
+ * Names live in an open-addressing table built once, so validating a declaration is one probe
+ * plus a bit test. The default schema is read from property-schema.txt on the classpath.
+ */
+public class PropertySchema {
+    public static final String DEFAULT_RESOURCE = "property-schema.txt";
+    // mask of a property that is not in the schema
+    public static final int ANY_TYPE = -1;
+
+    private static PropertySchema defaultSchema;
+
+    private final String[] names;
+    private final int[] masks;
+
+    private PropertySchema(List<String> propertyNames, List<Integer> propertyMasks) {
+        int capacity = Integer.highestOneBit(Math.max(1, propertyNames.size()) * 4 - 1) << 1;
+        names = new String[capacity];
+        masks = new int[capacity];
+        for (int i = 0; i < propertyNames.size(); i++) {
+            String name = propertyNames.get(i).intern();
+            int slot = slot(name);
+            while (names[slot] != null && !names[slot].equals(name)) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            names[slot] = name;
+            masks[slot] |= propertyMasks.get(i);
+        }
+    }
+
+    public static synchronized PropertySchema getDefault() {
+        if (defaultSchema == null) {
+            InputStream inputStream = PropertySchema.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE);
+            if (inputStream == null) {
+                throw new IllegalStateException("Resource " + DEFAULT_RESOURCE + " not found.");
+            }
+            defaultSchema = load(inputStream);
+        }
+        return defaultSchema;
+    }
+
+    /**
+     * Reads a schema with one "property: TYPE | TYPE" line per property. Blank lines and # comments are skipped
+     * @param inputStream the schema source, closed afterwards
+     * @return the schema
+     */
+    public static PropertySchema load(InputStream inputStream) {
+        List<String> propertyNames = new ArrayList<>();
+        List<Integer> propertyMasks = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": expected 'property: TYPE'.");
+                }
+                int mask = 0;
+                for (String type : line.substring(colon + 1).split("\\|")) {
+                    try {
+                        mask |= bit(ExpressionType.valueOf(type.trim()));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Line " + lineNumber + ": unknown type '" + type.trim() + "'.");
+                    }
+                }
+                propertyNames.add(line.substring(0, colon).trim());
+                propertyMasks.add(mask);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PropertySchema(propertyNames, propertyMasks);
+    }
+
+    /**
+     * Looks up the types property accepts
+     * @param property property name, ideally interned
+     * @return bitmask of allowed types, ANY_TYPE when the property is not in the schema
+     */
+    public int allowedTypes(String property) {
+        int slot = slot(property);
+        String name;
+        while ((name = names[slot]) != null) {
+            if (name == property || name.equals(property)) {
+                return masks[slot];
+            }
+            slot = (slot + 1) & (names.length - 1);
+        }
+        return ANY_TYPE;
+    }
+
+    public boolean allows(String property, ExpressionType type) {
+        return (allowedTypes(property) & bit(type)) != 0;
+    }
+
+    /**
+     * Describes a mask for error messages, e.g. "pixel or percentage"
+     * @param mask bitmask of types
+     * @return readable list of the types in mask
+     */
+    public static String describe(int mask) {
+        StringBuilder description = new StringBuilder();
+        for (ExpressionType type : ExpressionType.values()) {
+            if ((mask & bit(type)) != 0) {
+                if (description.length() > 0) {
+                    description.append(" or ");
+                }
+                description.append(type.name().toLowerCase());
+            }
+        }
+        return description.toString();
+    }
+
+    public static int bit(ExpressionType type) {
+        return 1 << type.ordinal();
+    }
+
+    private int slot(String name) {
+        int h = name.hashCode();
+        return (h ^ (h >>> 16)) & (names.length - 1);
+    }
+}
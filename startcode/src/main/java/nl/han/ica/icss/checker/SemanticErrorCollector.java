@@ -0,0 +1,50 @@
+package nl.han.ica.icss.checker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects errors in a list, up to a maximum number of errors.
+ */
+public class SemanticErrorCollector implements ErrorCollector {
+    private final ArrayList<SemanticError> errors = new ArrayList<>();
+    private final int maxErrors;
+    private final boolean failFast;
+
+    public SemanticErrorCollector() {
+        this(Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * @param maxErrors number of errors after which checking stops
+     * @param failFast true to stop checking at the first error
+     */
+    public SemanticErrorCollector(int maxErrors, boolean failFast) {
+        if (maxErrors <= 0) {
+            throw new IllegalArgumentException("maxErrors must be positive.");
+        }
+        this.maxErrors = failFast ? 1 : maxErrors;
+        this.failFast = failFast;
+    }
+
+    @Override
+    public void add(SemanticError error) {
+        if (errors.size() < maxErrors) {
+            errors.add(error);
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        return errors.size() >= maxErrors;
+    }
+
+    @Override
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    public List<SemanticError> getErrors() {
+        return errors;
+    }
+}
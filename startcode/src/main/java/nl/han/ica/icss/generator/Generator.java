@@ -1,7 +1,15 @@
 package nl.han.ica.icss.generator;
 
 import nl.han.ica.icss.ast.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.RecursiveAction;
 
 import nl.han.ica.icss.ast.literals.*;
 import nl.han.ica.icss.ast.operations.AddOperation;
@@ -10,78 +18,368 @@ import nl.han.ica.icss.ast.operations.SubtractOperation;
 
 public class Generator {
 
+    // the streaming generate methods pass the output on whenever this many chars are buffered
+    static final int BUFFER_SIZE = 8192;
+    // below this number of top-level nodes a parallel generate runs sequentially
+    public static final int PARALLEL_THRESHOLD = 1024;
+    // number of top-level nodes generated by one fork/join leaf task
+    private static final int NODES_PER_TASK = 256;
+
+    // two spaces per scope level, precomputed for the levels that occur in practice
+    private static final String[] INDENTS = new String[16];
+
+    static {
+        for (int i = 0; i < INDENTS.length; i++) {
+            INDENTS[i] = "  ".repeat(i);
+        }
+    }
+
+    private StringBuilder css;
+    private int indentLevel;
+    private boolean minify = false;
+    private boolean parallel = false;
+
+    /**
+     * In minify mode the output has no whitespace, no semicolon after the last declaration of a rule,
+     * shortened colors and zero lengths, and no empty rules
+     * @param minify true to generate minified CSS
+     */
+    public void setMinify(boolean minify) {
+        this.minify = minify;
+    }
+
+    /**
+     * In parallel mode the rules of large stylesheets are generated in chunks on the common ForkJoinPool, or on
+     * the pool of the calling fork/join task, and joined in source order; the output is the same as in sequential
+     * mode. The streaming generate methods then
+     * hold the whole output in memory before writing it.
+     * @param parallel true to generate large stylesheets in parallel
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     public String generate(AST ast) {
-        StringBuilder css = new StringBuilder();
-        generateNode(ast.root, css, 0);
+        if (isParallel(ast)) {
+            CharSequence[] chunks = generateParallel(ast.root);
+            int length = 0;
+            for (CharSequence chunk : chunks) {
+                length += chunk.length();
+            }
+            StringBuilder joined = new StringBuilder(length);
+            for (CharSequence chunk : chunks) {
+                joined.append(chunk);
+            }
+            return joined.toString();
+        }
+        css = new StringBuilder();
+        indentLevel = 0;
+        ast.root.accept(nodeGenerator);
         return css.toString();
     }
 
-    private void generateNode(ASTNode node, StringBuilder css, int indentLevel) {
-        String indent = "  ".repeat(indentLevel); // Two spaces per scope level
+    /**
+     * Generates the CSS rule by rule into out, only a few kilobytes are buffered at a time
+     * @param ast the AST to generate
+     * @param out receives the CSS, e.g. a Writer
+     * @throws IOException when out fails
+     */
+    public void generate(AST ast, Appendable out) throws IOException {
+        if (isParallel(ast)) {
+            for (CharSequence chunk : generateParallel(ast.root)) {
+                out.append(chunk);
+            }
+            return;
+        }
+        generate(ast, (ChunkWriter) out::append);
+    }
 
-        if (node instanceof Stylesheet) {
-            for (ASTNode child : node.getChildren()) {
-                generateNode(child, css, indentLevel);
+    /**
+     * Generates the CSS rule by rule and writes it to channel encoded as UTF-8
+     * @param ast the AST to generate
+     * @param channel receives the encoded CSS, e.g. a FileChannel
+     * @throws IOException when writing to channel fails
+     */
+    public void generate(AST ast, WritableByteChannel channel) throws IOException {
+        if (isParallel(ast)) {
+            ByteBuffer[] chunks = new ByteBuffer[(ast.root.childCount() + NODES_PER_TASK - 1) / NODES_PER_TASK];
+            new GenerateTask(this, ast.root, null, chunks, 0, chunks.length).invoke();
+            writeAll(chunks, channel);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE * 2);
+        generate(ast, chunk -> {
+            buffer.clear();
+            ByteBuffer bytes = buffer;
+            if (encodeAscii(chunk, buffer)) {
+                buffer.flip();
+            } else {
+                // not plain ASCII, or a single rule larger than the buffer
+                bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(chunk));
+            }
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
             }
-        } else if (node instanceof Stylerule) {
-            Stylerule stylerule = (Stylerule) node;
-            // Append selectors
-            css.append(indent);
-            List<Selector> selectors = stylerule.selectors;
-            for (int i = 0; i < selectors.size(); i++) {
-                css.append(selectors.get(i).toString());
-                if (i < selectors.size() - 1) {
-                    css.append(", ");
+        });
+    }
+
+    private boolean isParallel(AST ast) {
+        return parallel && ast.root.childCount() >= PARALLEL_THRESHOLD;
+    }
+
+    private CharSequence[] generateParallel(Stylesheet stylesheet) {
+        CharSequence[] chunks = new CharSequence[(stylesheet.childCount() + NODES_PER_TASK - 1) / NODES_PER_TASK];
+        new GenerateTask(this, stylesheet, chunks, null, 0, chunks.length).invoke();
+        return chunks;
+    }
+
+    // a gathering channel, like FileChannel, writes all chunks with few system calls
+    private static void writeAll(ByteBuffer[] chunks, WritableByteChannel channel) throws IOException {
+        if (channel instanceof GatheringByteChannel) {
+            int first = 0;
+            while (first < chunks.length) {
+                ((GatheringByteChannel) channel).write(chunks, first, chunks.length - first);
+                while (first < chunks.length && !chunks[first].hasRemaining()) {
+                    first++;
                 }
             }
-            css.append(" {\n");
+            return;
+        }
+        for (ByteBuffer chunk : chunks) {
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        }
+    }
+
+    /*
+     Generates the top-level nodes of tasks fromTask..toTask, NODES_PER_TASK nodes per task. Every leaf uses its
+     own Generator with the same options and stores its output in its own slot, as text or as encoded bytes.
+     */
+    private static class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Generator options;
+        private final Stylesheet stylesheet;
+        private final CharSequence[] textChunks;
+        private final ByteBuffer[] byteChunks;
+        private final int fromTask;
+        private final int toTask;
+
+        GenerateTask(Generator options, Stylesheet stylesheet, CharSequence[] textChunks, ByteBuffer[] byteChunks,
+                     int fromTask, int toTask) {
+            this.options = options;
+            this.stylesheet = stylesheet;
+            this.textChunks = textChunks;
+            this.byteChunks = byteChunks;
+            this.fromTask = fromTask;
+            this.toTask = toTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTask - fromTask > 1) {
+                int middle = (fromTask + toTask) >>> 1;
+                invokeAll(new GenerateTask(options, stylesheet, textChunks, byteChunks, fromTask, middle),
+                        new GenerateTask(options, stylesheet, textChunks, byteChunks, middle, toTask));
+                return;
+            }
+            Generator generator = new Generator();
+            generator.minify = options.minify;
+            generator.css = new StringBuilder(NODES_PER_TASK * 64);
+            int end = Math.min(stylesheet.childCount(), (fromTask + 1) * NODES_PER_TASK);
+            for (int i = fromTask * NODES_PER_TASK; i < end; i++) {
+                stylesheet.childAt(i).accept(generator.nodeGenerator);
+            }
+            if (byteChunks == null) {
+                textChunks[fromTask] = generator.css;
+                return;
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(generator.css.length());
+            if (encodeAscii(generator.css, bytes)) {
+                bytes.flip();
+            } else {
+                bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(generator.css));
+            }
+            byteChunks[fromTask] = bytes;
+        }
+    }
+
+    private interface ChunkWriter {
+        void write(CharSequence chunk) throws IOException;
+    }
+
+    private void generate(AST ast, ChunkWriter out) throws IOException {
+        css = new StringBuilder(BUFFER_SIZE + BUFFER_SIZE / 4);
+        indentLevel = 0;
+        Stylesheet stylesheet = ast.root;
+        for (int i = 0; i < stylesheet.childCount(); i++) {
+            stylesheet.childAt(i).accept(nodeGenerator);
+            if (css.length() >= BUFFER_SIZE) {
+                out.write(css);
+                css.setLength(0);
+            }
+        }
+        if (css.length() > 0) {
+            out.write(css);
+        }
+        css = null;
+    }
+
+    // CSS generated from ICSS is ASCII, so chars map straight to bytes without going through a CharsetEncoder
+    private static boolean encodeAscii(CharSequence chunk, ByteBuffer bytes) {
+        if (chunk.length() > bytes.remaining()) {
+            return false;
+        }
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (c >= 0x80) {
+                return false;
+            }
+            bytes.put((byte) c);
+        }
+        return true;
+    }
+
+    private final ASTVisitor<Void> nodeGenerator = new ASTVisitor<Void>() {
+        @Override
+        public Void visitStylesheet(Stylesheet stylesheet) {
+            for (int i = 0; i < stylesheet.childCount(); i++) {
+                stylesheet.childAt(i).accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitStylerule(Stylerule stylerule) {
+            if (minify && !hasDeclarations(stylerule)) {
+                return null;
+            }
+            appendRuleStart(css, stylerule, indentLevel);
             // Generate declarations and nested rules
-            for (ASTNode child : stylerule.getChildren()) {
-                generateNode(child, css, indentLevel + 1);
-            }
-            css.append(indent).append("}\n");
-        } else if (node instanceof Declaration) {
-            Declaration declaration = (Declaration) node;
-            css.append(indent).append(declaration.property.name).append(": ");
-            css.append(expressionToString(declaration.expression)).append(";\n");
-    	}
-	}
-
-    private String expressionToString(Expression expression) {
+            indentLevel++;
+            for (int i = 0; i < stylerule.body.size(); i++) {
+                stylerule.body.get(i).accept(this);
+            }
+            indentLevel--;
+            if (minify && css.charAt(css.length() - 1) == ';') {
+                css.setLength(css.length() - 1);
+            }
+            appendRuleEnd(css, indentLevel);
+            return null;
+        }
+
+        private boolean hasDeclarations(Stylerule stylerule) {
+            for (int i = 0; i < stylerule.body.size(); i++) {
+                ASTNode node = stylerule.body.get(i);
+                if (node instanceof Declaration || node instanceof Stylerule && hasDeclarations((Stylerule) node)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Void visitDeclaration(Declaration declaration) {
+            appendDeclarationStart(css, declaration.property.name, indentLevel);
+            appendExpression(css, declaration.expression);
+            appendDeclarationEnd(css);
+            return null;
+        }
+    };
+
+    /*
+     The pieces of the output format. CompiledStylesheet uses them to precompute the static parts of its output.
+     */
+    public void appendRuleStart(StringBuilder css, Stylerule stylerule, int indentLevel) {
+        indent(css, indentLevel);
+        // Append selectors
+        List<Selector> selectors = stylerule.selectors;
+        for (int i = 0; i < selectors.size(); i++) {
+            css.append(selectors.get(i).toString());
+            if (i < selectors.size() - 1) {
+                css.append(minify ? "," : ", ");
+            }
+        }
+        css.append(minify ? "{" : " {\n");
+    }
+
+    public void appendRuleEnd(StringBuilder css, int indentLevel) {
+        indent(css, indentLevel);
+        css.append(minify ? "}" : "}\n");
+    }
+
+    public void appendDeclarationStart(StringBuilder css, String property, int indentLevel) {
+        indent(css, indentLevel);
+        css.append(property).append(minify ? ":" : ": ");
+    }
+
+    public void appendDeclarationEnd(StringBuilder css) {
+        css.append(minify ? ";" : ";\n");
+    }
+
+    private void indent(StringBuilder css, int indentLevel) {
+        if (minify) {
+            return;
+        }
+        if (indentLevel < INDENTS.length) {
+            css.append(INDENTS[indentLevel]);
+        } else {
+            css.append("  ".repeat(indentLevel));
+        }
+    }
+
+    /**
+     * @param expression a literal, or an expression left unevaluated
+     * @return the expression as it appears in the output
+     */
+    public String expressionToString(Expression expression) {
+        StringBuilder text = new StringBuilder();
+        appendExpression(text, expression);
+        return text.toString();
+    }
+
+    /*
+     Appends straight into css, numbers included, so a declaration does not create any temporary strings.
+     Dispatches with instanceof rather than a visitor: a visitor returning strings would allocate them, and one
+     holding the target buffer would make the generator unsafe for CompiledStylesheet's concurrent renders.
+     */
+    public void appendExpression(StringBuilder css, Expression expression) {
         if (expression instanceof PixelLiteral) {
-            PixelLiteral pixel = (PixelLiteral) expression;
-            return pixel.value + "px";
-        } else if (!(expression instanceof PercentageLiteral)) {
-			if (expression instanceof ScalarLiteral) {
-				ScalarLiteral scalar = (ScalarLiteral) expression;
-				return String.valueOf(scalar.value);
-			} else if (expression instanceof ColorLiteral) {
-				ColorLiteral color = (ColorLiteral) expression;
-				return color.value;
-			} else if (expression instanceof BoolLiteral) {
-				BoolLiteral bool = (BoolLiteral) expression;
-				return String.valueOf(bool.value);
-			} else if (expression instanceof Operation) {
-				Operation operation = (Operation) expression;
-				String left = expressionToString(operation.lhs);
-				String right = expressionToString(operation.rhs);
-				String operator = "";
-
-				if (operation instanceof AddOperation) {
-					operator = " + ";
-				} else if (operation instanceof SubtractOperation) {
-					operator = " - ";
-				} else if (operation instanceof MultiplyOperation) {
-					operator = " * ";
-				}
-				return "(" + left + operator + right + ")";
-			} else if (expression instanceof VariableReference) {
-				return ((VariableReference) expression).name;
-			}
-		} else {
-			PercentageLiteral percentage = (PercentageLiteral) expression;
-			return percentage.value + "%";
-		}
-        return "";
-    }
-}
\ No newline at end of file
+            int value = ((PixelLiteral) expression).value;
+            css.append(value);
+            if (!minify || value != 0) {
+                css.append("px");
+            }
+        } else if (expression instanceof PercentageLiteral) {
+            css.append(((PercentageLiteral) expression).value).append('%');
+        } else if (expression instanceof ScalarLiteral) {
+            css.append(((ScalarLiteral) expression).value);
+        } else if (expression instanceof ColorLiteral) {
+            appendColor(css, ((ColorLiteral) expression).value);
+        } else if (expression instanceof BoolLiteral) {
+            css.append(((BoolLiteral) expression).value);
+        } else if (expression instanceof VariableReference) {
+            css.append(((VariableReference) expression).name);
+        } else if (expression instanceof Operation) {
+            Operation operation = (Operation) expression;
+            css.append('(');
+            appendExpression(css, operation.lhs);
+            css.append(operation instanceof AddOperation ? " + "
+                    : operation instanceof SubtractOperation ? " - "
+                    : operation instanceof MultiplyOperation ? " * " : "");
+            appendExpression(css, operation.rhs);
+            css.append(')');
+        }
+    }
+
+    private void appendColor(StringBuilder css, String color) {
+        if (minify && color.length() == 7 && color.charAt(1) == color.charAt(2)
+                && color.charAt(3) == color.charAt(4) && color.charAt(5) == color.charAt(6)) {
+            // #aabbcc is the same color as #abc
+            css.append('#').append(color.charAt(1)).append(color.charAt(3)).append(color.charAt(5));
+        } else {
+            css.append(color);
+        }
+    }
+}
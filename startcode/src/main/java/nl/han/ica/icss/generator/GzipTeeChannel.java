@@ -0,0 +1,93 @@
+package nl.han.ica.icss.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes every byte to a channel and at the same time writes a gzip compressed copy to a second channel,
+ * so the plain and the compressed file are produced in one pass over the output.
+ * Closing finishes the gzip stream; the two target channels are left open for the caller to close.
+ */
+public class GzipTeeChannel implements WritableByteChannel {
+
+    private static final int BUFFER_SIZE = 16384;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final WritableByteChannel out;
+    private final WritableByteChannel gzipOut;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer compressed = ByteBuffer.allocate(BUFFER_SIZE);
+    private boolean open = true;
+
+    /**
+     * @param out receives the bytes unchanged
+     * @param gzipOut receives the bytes in gzip format
+     * @param level compression level, 0-9 or Deflater.DEFAULT_COMPRESSION
+     * @throws IOException when writing the gzip header fails
+     */
+    public GzipTeeChannel(WritableByteChannel out, WritableByteChannel gzipOut, int level) throws IOException {
+        this.out = out;
+        this.gzipOut = gzipOut;
+        // raw deflate data, the gzip header and trailer are written here
+        this.deflater = new Deflater(level, true);
+        writeFully(gzipOut, ByteBuffer.wrap(GZIP_HEADER));
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        int length = src.remaining();
+        crc.update(src.duplicate());
+        deflater.setInput(src.duplicate());
+        while (!deflater.needsInput()) {
+            deflate();
+        }
+        writeFully(out, src);
+        return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putInt((int) crc.getValue()).putInt((int) deflater.getBytesRead()).flip();
+            writeFully(gzipOut, trailer);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void deflate() throws IOException {
+        compressed.clear();
+        deflater.deflate(compressed);
+        compressed.flip();
+        writeFully(gzipOut, compressed);
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
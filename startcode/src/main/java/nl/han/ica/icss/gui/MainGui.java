@@ -132,18 +132,24 @@ public class MainGui extends Application {
             exampleFilesMenu.getItems().add(levelItem);
         }
 
+        CheckMenuItem gzipOutput = new CheckMenuItem("Also save a gzip copy (.css.gz)");
         MenuItem saveOutput = new MenuItem("Save generated CSS...");
         saveOutput.setOnAction(new EventHandler<ActionEvent>() {
             @Override
             public void handle(ActionEvent e) {
                 //Create file dialog
                 FileChooser fileChooser = new FileChooser();
-                fileChooser.setTitle("Save generated CSS...");
+                fileChooser.setTitle(gzipOutput.isSelected() ? "Save generated CSS and a gzip copy..." : "Save generated CSS...");
                 fileChooser.setInitialFileName("output.css");
 
                 File file = fileChooser.showSaveDialog(stage);
                 if (file != null) {
-                    outputPane.writeToFile(file);
+                    try {
+                        outputPane.writeToFile(file, gzipOutput.isSelected());
+                        feedbackPane.addLine("Saved " + file.getName() + (gzipOutput.isSelected() ? " and " + file.getName() + ".gz" : ""));
+                    } catch (IOException ioe) {
+                        feedbackPane.addLine("Saving failed: " + ioe);
+                    }
                 }
             }
         });
@@ -156,7 +162,7 @@ public class MainGui extends Application {
         });
 
         fileMenu.getItems().addAll(loadInput, exampleFilesMenu, new SeparatorMenuItem(),
-                saveOutput, new SeparatorMenuItem(), quit);
+                saveOutput, gzipOutput, new SeparatorMenuItem(), quit);
         menuBar.getMenus().addAll(fileMenu);
 
         //Layout components
@@ -1,19 +1,27 @@
 package nl.han.ica.icss.gui;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.PrintStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
 
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.scene.layout.BorderPane;
+import nl.han.ica.icss.generator.GzipTeeChannel;
 
 @SuppressWarnings("restriction")
 public class OutputPane extends BorderPane {
 
 	private Label title;
 	private TextArea content;
+	private int gzipLevel = Deflater.DEFAULT_COMPRESSION;
 
 	public OutputPane () {
 		super();
@@ -33,13 +41,36 @@ public class OutputPane extends BorderPane {
 	public String getText() {
 		return content.getText();
 	}
-	public void writeToFile(File file) {
-		try {
-			PrintStream out = new PrintStream(new FileOutputStream(file));
-			out.print(this.getText());
-			out.close();
-		} catch(Exception exception) {
-			System.err.println(exception);
+	/**
+	 * @param gzipLevel compression level of the .gz copy writeToFile writes, 0-9 or Deflater.DEFAULT_COMPRESSION
+	 */
+	public void setGzipLevel(int gzipLevel) {
+		this.gzipLevel = gzipLevel;
+	}
+	/**
+	 * Writes the CSS shown in the pane to file
+	 * @param file the file to write
+	 * @param gzip true to also write a gzip compressed copy to file.gz, in the same pass
+	 * @throws IOException when a file cannot be written
+	 */
+	public void writeToFile(File file, boolean gzip) throws IOException {
+		try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			if (!gzip) {
+				writeText(out);
+				return;
+			}
+			File gzipFile = new File(file.getPath() + ".gz");
+			try (FileChannel gzipOut = FileChannel.open(gzipFile.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				writeText(new GzipTeeChannel(out, gzipOut, gzipLevel));
+			}
+		}
+	}
+	// the writer encodes the text in small chunks, no encoded copy of the whole output is made
+	private void writeText(WritableByteChannel channel) throws IOException {
+		try (Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+			writer.write(getText());
 		}
 	}
 }
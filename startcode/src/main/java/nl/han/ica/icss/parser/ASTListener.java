@@ -105,7 +105,7 @@ public class ASTListener extends ICSSBaseListener {
 	@Override
 	public void enterPropertyName(ICSSParser.PropertyNameContext ctx) {
 		// When entering a property name, create a PropertyName node and attach it to the current Declaration node
-		ASTNode propertyName = new PropertyName(ctx.getText());
+		ASTNode propertyName = new PropertyName(ctx.getText().intern());
 		currentContainer.peek().addChild(propertyName); // Attach to the current declaration
 	}
 	@Override
@@ -134,35 +134,36 @@ public class ASTListener extends ICSSBaseListener {
 
 	@Override
 	public void enterPixelSize(ICSSParser.PixelSizeContext ctx) {
-		ASTNode pixelSize = new PixelLiteral(ctx.getText());
+		ASTNode pixelSize = LiteralFactory.parsePixel(ctx.getText());
 		currentContainer.peek().addChild(pixelSize);
 	}
 	@Override
 	public void enterPercentage(ICSSParser.PercentageContext ctx) {
-		ASTNode percentage = new PercentageLiteral(ctx.getText());
+		ASTNode percentage = LiteralFactory.parsePercentage(ctx.getText());
 		currentContainer.peek().addChild(percentage);
 	}
 
 	@Override
 	public void enterScalar(ICSSParser.ScalarContext ctx) {
-		ASTNode scalar = new ScalarLiteral(ctx.getText());
+		ASTNode scalar = LiteralFactory.parseScalar(ctx.getText());
 		currentContainer.peek().addChild(scalar);
 	}
 
 	@Override
 	public void enterColor(ICSSParser.ColorContext ctx) {
-		ASTNode color = new ColorLiteral(ctx.getText());
+		ASTNode color = LiteralFactory.color(ctx.getText());
 		currentContainer.peek().addChild(color);
 	}
 
 	@Override
 	public void enterVariableReference(ICSSParser.VariableReferenceContext ctx) {
-		ASTNode variableReference = new VariableReference(ctx.getText());
+		// interned, so symbol table probes on the same name compare by reference
+		ASTNode variableReference = new VariableReference(ctx.getText().intern());
 		currentContainer.peek().addChild(variableReference);
 	}
 	@Override
 	public void enterBool(ICSSParser.BoolContext ctx) {
-		ASTNode bool = new BoolLiteral(ctx.getText());
+		ASTNode bool = LiteralFactory.parseBool(ctx.getText());
 		currentContainer.peek().addChild(bool);
 	}
 	@Override
@@ -0,0 +1,219 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.icss.ast.Literal;
+import nl.han.ica.icss.ast.literals.*;
+import nl.han.ica.icss.ast.types.ExpressionType;
+
+/**
+ * An expression compiled by ExpressionCompiler into a tree of specialised evaluator objects.
+ * Variable references read a (depth, slot) coordinate in the frames passed to evaluate(), so
+ * evaluating never looks up a name. Operations whose operand types are known at compile time work on plain ints
+ * and only the root wraps the result in a literal.
+ */
+public abstract class CompiledExpression {
+
+    // result type, UNDEFINED when it is only known at run time
+    public final ExpressionType type;
+
+    CompiledExpression(ExpressionType type) {
+        this.type = type;
+    }
+
+    /**
+     * Evaluates the expression
+     * @param frames current variable values, indexed by depth and then by slot
+     * @return the value, or null when it cannot be computed
+     */
+    public abstract Literal evaluate(Literal[][] frames);
+
+    /**
+     * Evaluates a PIXEL, PERCENTAGE or SCALAR expression without allocating a literal
+     * @param frames current variable values
+     * @return the numeric value
+     */
+    public int evaluateInt(Literal[][] frames) {
+        return intValue(evaluate(frames));
+    }
+
+    /**
+     * @return true when the expression evaluates to the same value whatever the variables hold
+     */
+    public boolean isConstant() {
+        return false;
+    }
+
+    static int intValue(Literal literal) {
+        if (literal instanceof PixelLiteral) {
+            return ((PixelLiteral) literal).value;
+        } else if (literal instanceof PercentageLiteral) {
+            return ((PercentageLiteral) literal).value;
+        } else if (literal instanceof ScalarLiteral) {
+            return ((ScalarLiteral) literal).value;
+        }
+        throw new IllegalStateException("Not a numeric value: " + literal);
+    }
+
+    static Literal toLiteral(ExpressionType type, int value) {
+        if (type == ExpressionType.PIXEL) {
+            return LiteralFactory.pixel(value);
+        } else if (type == ExpressionType.PERCENTAGE) {
+            return LiteralFactory.percentage(value);
+        }
+        return LiteralFactory.scalar(value);
+    }
+
+    public static ExpressionType typeOf(Literal literal) {
+        if (literal instanceof PixelLiteral) {
+            return ExpressionType.PIXEL;
+        } else if (literal instanceof PercentageLiteral) {
+            return ExpressionType.PERCENTAGE;
+        } else if (literal instanceof ScalarLiteral) {
+            return ExpressionType.SCALAR;
+        } else if (literal instanceof ColorLiteral) {
+            return ExpressionType.COLOR;
+        } else if (literal instanceof BoolLiteral) {
+            return ExpressionType.BOOL;
+        }
+        return ExpressionType.UNDEFINED;
+    }
+
+    static final class Constant extends CompiledExpression {
+        private final Literal value;
+        private final int intValue;
+
+        Constant(Literal value) {
+            super(typeOf(value));
+            this.value = value;
+            this.intValue = isNumeric(type) ? intValue(value) : 0;
+        }
+
+        @Override
+        public Literal evaluate(Literal[][] frames) {
+            return value;
+        }
+
+        @Override
+        public int evaluateInt(Literal[][] frames) {
+            return intValue;
+        }
+
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
+    }
+
+    static final class SlotLoad extends CompiledExpression {
+        private final int depth;
+        private final int slot;
+
+        SlotLoad(int depth, int slot, ExpressionType type) {
+            super(type);
+            this.depth = depth;
+            this.slot = slot;
+        }
+
+        @Override
+        public Literal evaluate(Literal[][] frames) {
+            return frames[depth][slot];
+        }
+    }
+
+    /*
+     Arithmetic on operands whose numeric types were checked at compile time.
+     */
+    abstract static class IntOperation extends CompiledExpression {
+        final CompiledExpression lhs;
+        final CompiledExpression rhs;
+
+        IntOperation(ExpressionType type, CompiledExpression lhs, CompiledExpression rhs) {
+            super(type);
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        @Override
+        public Literal evaluate(Literal[][] frames) {
+            return toLiteral(type, evaluateInt(frames));
+        }
+    }
+
+    static final class IntAdd extends IntOperation {
+        IntAdd(ExpressionType type, CompiledExpression lhs, CompiledExpression rhs) {
+            super(type, lhs, rhs);
+        }
+
+        @Override
+        public int evaluateInt(Literal[][] frames) {
+            return lhs.evaluateInt(frames) + rhs.evaluateInt(frames);
+        }
+    }
+
+    static final class IntSubtract extends IntOperation {
+        IntSubtract(ExpressionType type, CompiledExpression lhs, CompiledExpression rhs) {
+            super(type, lhs, rhs);
+        }
+
+        @Override
+        public int evaluateInt(Literal[][] frames) {
+            return lhs.evaluateInt(frames) - rhs.evaluateInt(frames);
+        }
+    }
+
+    static final class IntMultiply extends IntOperation {
+        IntMultiply(ExpressionType type, CompiledExpression lhs, CompiledExpression rhs) {
+            super(type, lhs, rhs);
+        }
+
+        @Override
+        public int evaluateInt(Literal[][] frames) {
+            return lhs.evaluateInt(frames) * rhs.evaluateInt(frames);
+        }
+    }
+
+    /*
+     Fallback for operands whose types are only known at run time, e.g. undefined variables.
+     Dispatches on the literal types like the evaluator did before expressions were compiled.
+     */
+    static final class DynamicOperation extends CompiledExpression {
+        static final char ADD = '+';
+        static final char SUBTRACT = '-';
+        static final char MULTIPLY = '*';
+
+        private final char operator;
+        private final CompiledExpression lhs;
+        private final CompiledExpression rhs;
+
+        DynamicOperation(char operator, CompiledExpression lhs, CompiledExpression rhs) {
+            super(ExpressionType.UNDEFINED);
+            this.operator = operator;
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        @Override
+        public Literal evaluate(Literal[][] frames) {
+            Literal left = lhs.evaluate(frames);
+            Literal right = rhs.evaluate(frames);
+            if (left == null || right == null) {
+                return null;
+            }
+            ExpressionType resultType = ExpressionCompiler.resultType(operator, typeOf(left), typeOf(right));
+            if (resultType == ExpressionType.UNDEFINED) {
+                return null;
+            }
+            int a = intValue(left);
+            int b = intValue(right);
+            if (operator == ADD) {
+                return toLiteral(resultType, a + b);
+            } else if (operator == SUBTRACT) {
+                return toLiteral(resultType, a - b);
+            }
+            return toLiteral(resultType, a * b);
+        }
+    }
+
+    static boolean isNumeric(ExpressionType type) {
+        return type == ExpressionType.PIXEL || type == ExpressionType.PERCENTAGE || type == ExpressionType.SCALAR;
+    }
+}
@@ -0,0 +1,200 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.icss.ast.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes statements that cannot affect the generated CSS. Before evaluation it removes variable assignments
+ * whose value is never read, after evaluation it keeps only the last declaration of every property in a rule.
+ */
+public class DeadCodeEliminator implements Transform {
+
+    public enum Phase {
+        // remove assignments whose value is never read, run before the Evaluator
+        BEFORE_EVALUATION,
+        // remove declarations overridden later in the same rule, run after the Evaluator
+        AFTER_EVALUATION
+    }
+
+    private final Phase phase;
+    private int removedCount;
+
+    public DeadCodeEliminator(Phase phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Number of statements the last apply() removed
+     * @return removed assignments or declarations
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    @Override
+    public void apply(AST ast) {
+        removedCount = 0;
+        if (phase == Phase.BEFORE_EVALUATION) {
+            removeUnusedAssignments(ast);
+        } else {
+            removeOverriddenDeclarations(ast.root);
+        }
+    }
+
+    /*
+     Every variable reference reads the last assignment of its variable before it in source order: assignments
+     in nested blocks introduce a new variable, so they never replace the value seen outside. That makes the
+     use-def chains exact. An assignment without uses is dead; removing it removes the uses in its expression,
+     which can make the assignments they read dead as well.
+     */
+    private void removeUnusedAssignments(AST ast) {
+        new VariableResolver().apply(ast);
+        UseDefBuilder useDef = new UseDefBuilder();
+        ast.root.accept(useDef);
+
+        Deque<VariableAssignment> unused = new ArrayDeque<>();
+        for (Map.Entry<VariableAssignment, List<VariableAssignment>> entry : useDef.reads.entrySet()) {
+            if (useDef.useCounts.get(entry.getKey()) == 0) {
+                unused.push(entry.getKey());
+            }
+        }
+        Set<ASTNode> dead = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (!unused.isEmpty()) {
+            VariableAssignment assignment = unused.pop();
+            dead.add(assignment);
+            for (VariableAssignment read : useDef.reads.get(assignment)) {
+                int uses = useDef.useCounts.get(read) - 1;
+                useDef.useCounts.put(read, uses);
+                if (uses == 0) {
+                    unused.push(read);
+                }
+            }
+        }
+        if (!dead.isEmpty()) {
+            ast.root.accept(new DeadNodeRemover(dead));
+        }
+    }
+
+    private static class UseDefBuilder implements ASTVisitor<Void> {
+        // per assignment: the number of references reading its value, and the assignments its expression reads
+        final Map<VariableAssignment, Integer> useCounts = new IdentityHashMap<>();
+        final Map<VariableAssignment, List<VariableAssignment>> reads = new IdentityHashMap<>();
+        // per variable, identified by the assignment that introduced it: the assignment that set its current value
+        private final Map<VariableAssignment, VariableAssignment> currentValues = new IdentityHashMap<>();
+        private List<VariableAssignment> currentReads;
+
+        @Override
+        public Void visitNode(ASTNode node) {
+            for (int i = 0; i < node.childCount(); i++) {
+                node.childAt(i).accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitVariableAssignment(VariableAssignment node) {
+            currentReads = new ArrayList<>();
+            node.expression.accept(this);
+            reads.put(node, currentReads);
+            currentReads = null;
+            useCounts.put(node, 0);
+            currentValues.put(node.name.assignment, node);
+            return null;
+        }
+
+        @Override
+        public Void visitVariableReference(VariableReference node) {
+            VariableAssignment definition = node.assignment == null ? null : currentValues.get(node.assignment);
+            if (definition != null) {
+                useCounts.merge(definition, 1, Integer::sum);
+                if (currentReads != null) {
+                    currentReads.add(definition);
+                }
+            }
+            return null;
+        }
+    }
+
+    // rebuilds every body that contains dead nodes in one pass
+    private class DeadNodeRemover implements ASTVisitor<Void> {
+        private final Set<ASTNode> dead;
+
+        DeadNodeRemover(Set<ASTNode> dead) {
+            this.dead = dead;
+        }
+
+        @Override
+        public Void visitStylesheet(Stylesheet node) {
+            return removeFromBody(node, 0, node.childCount());
+        }
+
+        @Override
+        public Void visitStylerule(Stylerule node) {
+            return removeFromBody(node, node.selectors.size(), node.childCount());
+        }
+
+        @Override
+        public Void visitIfClause(IfClause node) {
+            removeFromBody(node, 1, 1 + node.body.size());
+            if (node.elseClause != null) {
+                node.elseClause.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitElseClause(ElseClause node) {
+            return removeFromBody(node, 0, node.childCount());
+        }
+
+        private Void removeFromBody(BodyContainer container, int from, int to) {
+            List<ASTNode> kept = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                ASTNode child = container.childAt(i);
+                if (dead.contains(child)) {
+                    removedCount++;
+                } else {
+                    child.accept(this);
+                    kept.add(child);
+                }
+            }
+            if (kept.size() < to - from) {
+                container.spliceChildren(from, to, kept);
+            }
+            return null;
+        }
+    }
+
+    // the cascade lets the last declaration of a property win, earlier ones in the same rule never show
+    private void removeOverriddenDeclarations(Stylesheet stylesheet) {
+        for (ASTNode node : stylesheet.body) {
+            if (!(node instanceof Stylerule)) {
+                continue;
+            }
+            Stylerule stylerule = (Stylerule) node;
+            Set<String> declared = new HashSet<>();
+            List<ASTNode> kept = new ArrayList<>(stylerule.body.size());
+            for (int i = stylerule.body.size() - 1; i >= 0; i--) {
+                ASTNode statement = stylerule.body.get(i);
+                if (statement instanceof Declaration && !declared.add(((Declaration) statement).property.name)) {
+                    removedCount++;
+                } else {
+                    kept.add(statement);
+                }
+            }
+            if (kept.size() < stylerule.body.size()) {
+                Collections.reverse(kept);
+                stylerule.spliceChildren(stylerule.selectors.size(), stylerule.childCount(), kept);
+            }
+        }
+    }
+}
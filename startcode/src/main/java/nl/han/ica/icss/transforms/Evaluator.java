@@ -1,176 +1,185 @@
 package nl.han.ica.icss.transforms;
 
-import nl.han.ica.HANLinkedList;
-import nl.han.ica.datastructures.IHANLinkedList;
 import nl.han.ica.icss.ast.*;
 import nl.han.ica.icss.ast.literals.*;
-import nl.han.ica.icss.ast.operations.AddOperation;
-import nl.han.ica.icss.ast.operations.MultiplyOperation;
-import nl.han.ica.icss.ast.operations.SubtractOperation;
+import nl.han.ica.icss.ast.types.ExpressionType;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 
 public class Evaluator implements Transform {
 
-    private IHANLinkedList<HashMap<String, Literal>> variableValues;
+    private static final Literal[] EMPTY_FRAME = new Literal[0];
+    private static final ExpressionType[] EMPTY_TYPES = new ExpressionType[0];
+
+    private VariableResolver resolver;
+    // frames[d] holds the variables of the innermost open block at depth d
+    private Literal[][] frames;
+    // slotTypes[d][s] is the static type of frames[d][s]: the type of the assignment that set it, as compiled
+    private ExpressionType[][] slotTypes;
+    private int depth;
+    private ExpressionCompiler compiler;
 
     public Evaluator() {
-        variableValues = new HANLinkedList<>();
-        pushScope();
+        resolver = new VariableResolver();
+        frames = new Literal[8][];
+        slotTypes = new ExpressionType[8][];
+        depth = -1;
+        // specialised on static types only, so a compiled tree does not depend on the values in the frames
+        compiler = new ExpressionCompiler((frameDepth, slot) -> {
+            ExpressionType type = slotTypes[frameDepth][slot];
+            return type == null ? ExpressionType.UNDEFINED : type;
+        });
     }
 
     @Override
     public void apply(AST ast) {
-        evaluateAST(ast.root, null);
+        resolver.apply(ast);
+        ast.root.accept(nodeEvaluator);
     }
 
-    private void evaluateAST(ASTNode node, ASTNode parent) {
-        // First, traverse the children
-        List<ASTNode> children = new ArrayList<>(node.getChildren());
-        for (ASTNode child : children) {
-            evaluateAST(child, node);
+    /*
+     Evaluates statements in source order. Expressions are not visited, they are compiled and
+     evaluated as a whole by the statement that holds them.
+     */
+    private final ASTVisitor<Void> nodeEvaluator = new ASTVisitor<Void>() {
+        @Override
+        public Void visitStylesheet(Stylesheet node) {
+            enterFrame(node);
+            flattenBody(node, 0, node.childCount());
+            exitFrame();
+            return null;
         }
 
-        // Now, process the current node
-        if (node instanceof VariableAssignment) {
-            // Evaluate variable assignments
-            VariableAssignment varAssign = (VariableAssignment) node;
-            Literal value = evaluateExpression(varAssign.expression);
-            variableValues.getFirst().put(varAssign.name.name, value);
-            varAssign.expression = value;
-        } else if (node instanceof Declaration) {
-            // Evaluate declarations
-            Declaration declaration = (Declaration) node;
-            Literal value = evaluateExpression(declaration.expression);
-            declaration.expression = value;
-        } else if (node instanceof IfClause) {
-            // Evaluate if/else clauses
-            evaluateIfClause((IfClause) node, parent);
+        @Override
+        public Void visitStylerule(Stylerule node) {
+            enterFrame(node);
+            flattenBody(node, node.selectors.size(), node.childCount());
+            exitFrame();
+            return null;
         }
-    }
 
-    private void evaluateIfClause(IfClause ifClause, ASTNode parent) {
-        Literal condition = evaluateExpression(ifClause.conditionalExpression);
-        if (condition instanceof BoolLiteral) {
-            boolean conditionValue = ((BoolLiteral) condition).value;
-            int index = parent.getChildren().indexOf(ifClause);
-            parent.getChildren().remove(ifClause);
-            List<ASTNode> newNodes = new ArrayList<>();
-            if (conditionValue) {
-                // Evalueer en voeg de body van het if-statement toe
-                for (ASTNode child : ifClause.body) {
-                    evaluateAST(child, ifClause);
-                    newNodes.add(child);
-                }
-            } else if (ifClause.elseClause != null) {
-                // Evalueer en voeg de body van het else-statement toe
-                for (ASTNode child : ifClause.elseClause.body) {
-                    evaluateAST(child, ifClause.elseClause);
-                    newNodes.add(child);
-                }
+        // only reached for an if-clause whose condition is not a boolean, which stays in the tree
+        @Override
+        public Void visitIfClause(IfClause node) {
+            enterFrame(node);
+            flattenBody(node, 1, 1 + node.body.size());
+            exitFrame();
+            if (node.elseClause != null) {
+                enterFrame(node.elseClause);
+                flattenBody(node.elseClause, 0, node.elseClause.childCount());
+                exitFrame();
             }
-            // Voeg de geëvalueerde nodes toe aan de parent
-            parent.getChildren().addAll(index, newNodes);
+            return null;
         }
-    }
 
-    private Literal evaluateExpression(Expression expression) {
-        if (expression instanceof Literal) {
-            return (Literal) expression;
-        } else if (expression instanceof VariableReference) {
-            String name = ((VariableReference) expression).name;
-            Literal value = lookupVariable(name);
-            if (value != null) {
-                return value;
-            }
-            // Behandel ongedefinieerde variabelen indien nodig
-        } else if (expression instanceof Operation) {
-            Literal left = evaluateExpression(((Operation) expression).lhs);
-            Literal right = evaluateExpression(((Operation) expression).rhs);
-            if (left != null && right != null) {
-                if (expression instanceof AddOperation) {
-                    return performAddition(left, right);
-                } else if (expression instanceof SubtractOperation) {
-                    return performSubtraction(left, right);
-                } else if (expression instanceof MultiplyOperation) {
-                    return performMultiplication(left, right);
-                }
-            }
+        @Override
+        public Void visitExpression(Expression node) {
+            return null;
         }
-        return null; // Of handel foutafhandeling af
-    }
 
-    private Literal lookupVariable(String name) {
-        for (int i = 0; i < variableValues.getSize(); i++) {
-            HashMap<String, Literal> scope = variableValues.get(i);
-            if (scope.containsKey(name)) {
-                return scope.get(name);
-            }
+        @Override
+        public Void visitVariableAssignment(VariableAssignment node) {
+            // Evaluate variable assignments
+            CompiledExpression compiled = compiler.compile(node.expression);
+            Literal value = compiled.evaluate(frames);
+            frames[node.depth][node.slot] = value;
+            slotTypes[node.depth][node.slot] = compiled.type;
+            node.expression = value;
+            return null;
         }
-        return null;
-    }
 
-    private Literal performAddition(Literal left, Literal right) {
-        // Implementeer optelling op basis van Literal types
-        if (left instanceof PixelLiteral && right instanceof PixelLiteral) {
-            int result = ((PixelLiteral) left).value + ((PixelLiteral) right).value;
-            return new PixelLiteral(result);
-        } else if (left instanceof PercentageLiteral && right instanceof PercentageLiteral) {
-            int result = ((PercentageLiteral) left).value + ((PercentageLiteral) right).value;
-            return new PercentageLiteral(result);
-        } else if (left instanceof ScalarLiteral && right instanceof ScalarLiteral) {
-            int result = ((ScalarLiteral) left).value + ((ScalarLiteral) right).value;
-            return new ScalarLiteral(result);
+        @Override
+        public Void visitDeclaration(Declaration node) {
+            // Evaluate declarations
+            node.expression = evaluateExpression(node.expression);
+            return null;
+        }
+    };
+
+    /*
+     Evaluates the children from (inclusive) to to (exclusive) of container in source order and replaces every
+     if-clause by the body of the branch its condition selects. The result is collected in one list and spliced
+     into the real body at once, so a body with n statements is flattened in O(n) however many if-clauses it has.
+     */
+    private void flattenBody(BodyContainer container, int from, int to) {
+        List<ASTNode> flattened = null;
+        for (int i = from; i < to; i++) {
+            ASTNode child = container.childAt(i);
+            if (flattened == null && child instanceof IfClause) {
+                // first if-clause, copy the statements before it
+                flattened = new ArrayList<>(to - from);
+                for (int j = from; j < i; j++) {
+                    flattened.add(container.childAt(j));
+                }
+            }
+            if (flattened == null) {
+                child.accept(nodeEvaluator);
+            } else {
+                appendEvaluated(child, flattened);
+            }
+        }
+        if (flattened != null) {
+            container.spliceChildren(from, to, flattened);
         }
-        // Voeg hier andere combinaties toe indien nodig
-        return null;
     }
 
-    private Literal performSubtraction(Literal left, Literal right) {
-        // Implementeer aftrekking op basis van Literal types
-        if (left instanceof PixelLiteral && right instanceof PixelLiteral) {
-            int result = ((PixelLiteral) left).value - ((PixelLiteral) right).value;
-            return new PixelLiteral(result);
-        } else if (left instanceof PercentageLiteral && right instanceof PercentageLiteral) {
-            int result = ((PercentageLiteral) left).value - ((PercentageLiteral) right).value;
-            return new PercentageLiteral(result);
-        } else if (left instanceof ScalarLiteral && right instanceof ScalarLiteral) {
-            int result = ((ScalarLiteral) left).value - ((ScalarLiteral) right).value;
-            return new ScalarLiteral(result);
+    private void appendEvaluated(ASTNode node, List<ASTNode> flattened) {
+        if (!(node instanceof IfClause)) {
+            node.accept(nodeEvaluator);
+            flattened.add(node);
+            return;
+        }
+        IfClause ifClause = (IfClause) node;
+        Literal condition = evaluateExpression(ifClause.conditionalExpression);
+        if (!(condition instanceof BoolLiteral)) {
+            ifClause.accept(nodeEvaluator);
+            flattened.add(ifClause);
+            return;
+        }
+        // only the selected branch is evaluated, its nested if-clauses are flattened as well
+        if (((BoolLiteral) condition).value) {
+            enterFrame(ifClause);
+            for (ASTNode child : ifClause.body) {
+                appendEvaluated(child, flattened);
+            }
+            exitFrame();
+        } else if (ifClause.elseClause != null) {
+            enterFrame(ifClause.elseClause);
+            for (ASTNode child : ifClause.elseClause.body) {
+                appendEvaluated(child, flattened);
+            }
+            exitFrame();
         }
-        // Voeg hier andere combinaties toe indien nodig
-        return null;
     }
 
-    private Literal performMultiplication(Literal left, Literal right) {
-        // Implementeer vermenigvuldiging op basis van Literal types
-        if (left instanceof ScalarLiteral && right instanceof PixelLiteral) {
-            int result = ((ScalarLiteral) left).value * ((PixelLiteral) right).value;
-            return new PixelLiteral(result);
-        } else if (left instanceof PixelLiteral && right instanceof ScalarLiteral) {
-            int result = ((PixelLiteral) left).value * ((ScalarLiteral) right).value;
-            return new PixelLiteral(result);
-        } else if (left instanceof ScalarLiteral && right instanceof PercentageLiteral) {
-            int result = ((ScalarLiteral) left).value * ((PercentageLiteral) right).value;
-            return new PercentageLiteral(result);
-        } else if (left instanceof PercentageLiteral && right instanceof ScalarLiteral) {
-            int result = ((PercentageLiteral) left).value * ((ScalarLiteral) right).value;
-            return new PercentageLiteral(result);
-        } else if (left instanceof ScalarLiteral && right instanceof ScalarLiteral) {
-            int result = ((ScalarLiteral) left).value * ((ScalarLiteral) right).value;
-            return new ScalarLiteral(result);
+    /*
+     Blocks are entered in the same nesting as in the source, so the depth counted here
+     is the depth VariableResolver assigned to the variables of block.
+     */
+    private void enterFrame(ASTNode block) {
+        depth++;
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+            slotTypes = Arrays.copyOf(slotTypes, depth * 2);
         }
-        // Voeg hier andere combinaties toe indien nodig
-        return null;
+        int size = resolver.getFrameSize(block);
+        frames[depth] = size == 0 ? EMPTY_FRAME : new Literal[size];
+        slotTypes[depth] = size == 0 ? EMPTY_TYPES : new ExpressionType[size];
     }
 
-    private void pushScope() {
-        variableValues.addFirst(new HashMap<>());
+    private void exitFrame() {
+        frames[depth] = null;
+        slotTypes[depth] = null;
+        depth--;
     }
 
-    private void popScope() {
-        variableValues.removeFirst();
+    /*
+     Every expression node is reached exactly once, in source order, so the static types of the variables it
+     reads are known and its tree is compiled once and evaluated right away.
+     */
+    private Literal evaluateExpression(Expression expression) {
+        return compiler.compile(expression).evaluate(frames);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.icss.ast.Expression;
+import nl.han.ica.icss.ast.Literal;
+import nl.han.ica.icss.ast.Operation;
+import nl.han.ica.icss.ast.VariableAssignment;
+import nl.han.ica.icss.ast.VariableReference;
+import nl.han.ica.icss.ast.operations.AddOperation;
+import nl.han.ica.icss.ast.operations.SubtractOperation;
+import nl.han.ica.icss.ast.types.ExpressionType;
+
+/**
+ * Compiles expressions into CompiledExpression trees. Variable references must have been resolved by
+ * VariableResolver, they compile to loads of their frame coordinate. Operations are specialised on the
+ * operand types known at compile time and operations on two constants are folded.
+ */
+public class ExpressionCompiler {
+
+    /**
+     * Tells the compiler what the variables currently hold
+     */
+    public interface SlotTypes {
+        /**
+         * @param depth frame depth of a variable
+         * @param slot slot of the variable in its frame
+         * @return the type of the value in the slot, UNDEFINED when unknown
+         */
+        ExpressionType typeOf(int depth, int slot);
+
+        /**
+         * @param depth frame depth of a variable
+         * @param slot slot of the variable in its frame
+         * @return the value of the variable when it is known at compile time, null otherwise
+         */
+        default Literal constantValue(int depth, int slot) {
+            return null;
+        }
+    }
+
+    private final SlotTypes slots;
+
+    public ExpressionCompiler(SlotTypes slots) {
+        this.slots = slots;
+    }
+
+    public CompiledExpression compile(Expression expression) {
+        if (expression instanceof Literal) {
+            return new CompiledExpression.Constant((Literal) expression);
+        } else if (expression instanceof VariableReference) {
+            VariableAssignment assignment = ((VariableReference) expression).assignment;
+            if (assignment == null) {
+                // undefined variable
+                return new CompiledExpression.Constant(null);
+            }
+            Literal constant = slots.constantValue(assignment.depth, assignment.slot);
+            if (constant != null) {
+                return new CompiledExpression.Constant(constant);
+            }
+            return new CompiledExpression.SlotLoad(assignment.depth, assignment.slot,
+                    slots.typeOf(assignment.depth, assignment.slot));
+        } else if (expression instanceof Operation) {
+            Operation operation = (Operation) expression;
+            char operator = operation instanceof AddOperation ? CompiledExpression.DynamicOperation.ADD
+                    : operation instanceof SubtractOperation ? CompiledExpression.DynamicOperation.SUBTRACT
+                    : CompiledExpression.DynamicOperation.MULTIPLY;
+            return compileOperation(operator, compile(operation.lhs), compile(operation.rhs));
+        }
+        return new CompiledExpression.Constant(null);
+    }
+
+    private CompiledExpression compileOperation(char operator, CompiledExpression lhs, CompiledExpression rhs) {
+        ExpressionType type = resultType(operator, lhs.type, rhs.type);
+        if (type == ExpressionType.UNDEFINED) {
+            return new CompiledExpression.DynamicOperation(operator, lhs, rhs);
+        }
+        CompiledExpression compiled;
+        if (operator == CompiledExpression.DynamicOperation.ADD) {
+            compiled = new CompiledExpression.IntAdd(type, lhs, rhs);
+        } else if (operator == CompiledExpression.DynamicOperation.SUBTRACT) {
+            compiled = new CompiledExpression.IntSubtract(type, lhs, rhs);
+        } else {
+            compiled = new CompiledExpression.IntMultiply(type, lhs, rhs);
+        }
+        if (lhs instanceof CompiledExpression.Constant && rhs instanceof CompiledExpression.Constant) {
+            return new CompiledExpression.Constant(compiled.evaluate(null));
+        }
+        return compiled;
+    }
+
+    /*
+     Result type of an arithmetic operation, UNDEFINED when the evaluator cannot compute it:
+     + and - need two operands of the same numeric type, * needs at least one scalar.
+     */
+    static ExpressionType resultType(char operator, ExpressionType left, ExpressionType right) {
+        if (!CompiledExpression.isNumeric(left) || !CompiledExpression.isNumeric(right)) {
+            return ExpressionType.UNDEFINED;
+        }
+        if (operator != CompiledExpression.DynamicOperation.MULTIPLY) {
+            return left == right ? left : ExpressionType.UNDEFINED;
+        }
+        if (left == ExpressionType.SCALAR) {
+            return right;
+        } else if (right == ExpressionType.SCALAR) {
+            return left;
+        }
+        return ExpressionType.UNDEFINED;
+    }
+}
@@ -0,0 +1,123 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.HANIntStack;
+import nl.han.ica.HANSymbolTable;
+import nl.han.ica.datastructures.IHANIntStack;
+import nl.han.ica.datastructures.IHANSymbolTable;
+import nl.han.ica.icss.ast.*;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Resolves variables before evaluation. The stylesheet, every style rule, if-clause and else-clause get a
+ * frame; each variable assigned in a block gets a slot in that block's frame, and each VariableAssignment
+ * stores the (depth, slot) of its variable. Every VariableReference is pointed at the assignment that
+ * introduced the variable it reads. An else-clause is a block beside its if-clause, at the same depth, so it
+ * never reads variables assigned in the if body.
+ */
+public class VariableResolver implements Transform {
+
+    private IHANSymbolTable<VariableAssignment> bindings;
+    private Map<ASTNode, Integer> frameSizes;
+    // next free slot in the innermost frame, and of the frames around it
+    private int nextSlot;
+    private IHANIntStack enclosingNextSlots;
+
+    @Override
+    public void apply(AST ast) {
+        bindings = new HANSymbolTable<>();
+        frameSizes = new IdentityHashMap<>();
+        nextSlot = 0;
+        enclosingNextSlots = new HANIntStack();
+        ast.root.accept(resolver);
+        frameSizes.put(ast.root, nextSlot);
+    }
+
+    /**
+     * Number of slots the frame of block needs
+     * @param block the stylesheet, a style rule, if-clause or else-clause of the resolved AST
+     * @return number of variables assigned directly in block
+     */
+    public int getFrameSize(ASTNode block) {
+        return frameSizes.getOrDefault(block, 0);
+    }
+
+    private void openBlock() {
+        enclosingNextSlots.push(nextSlot);
+        nextSlot = 0;
+        bindings.enterScope();
+    }
+
+    private void closeBlock(ASTNode block) {
+        bindings.exitScope();
+        frameSizes.put(block, nextSlot);
+        nextSlot = enclosingNextSlots.pop();
+    }
+
+    private final ASTVisitor<Void> resolver = new ASTVisitor<Void>() {
+        @Override
+        public Void visitNode(ASTNode node) {
+            for (int i = 0; i < node.childCount(); i++) {
+                node.childAt(i).accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitStylerule(Stylerule node) {
+            return visitBlock(node);
+        }
+
+        @Override
+        public Void visitIfClause(IfClause node) {
+            openBlock();
+            node.conditionalExpression.accept(this);
+            for (ASTNode child : node.body) {
+                child.accept(this);
+            }
+            closeBlock(node);
+            if (node.elseClause != null) {
+                node.elseClause.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitElseClause(ElseClause node) {
+            return visitBlock(node);
+        }
+
+        private Void visitBlock(ASTNode block) {
+            openBlock();
+            visitNode(block);
+            closeBlock(block);
+            return null;
+        }
+
+        @Override
+        public Void visitVariableAssignment(VariableAssignment node) {
+            // the value is resolved first, so X := X + 1px in a nested block reads the outer X
+            node.expression.accept(this);
+            VariableAssignment introducing = bindings.lookup(node.name.name);
+            if (introducing == null || introducing.depth != bindings.getDepth()) {
+                introducing = node;
+                node.depth = bindings.getDepth();
+                node.slot = nextSlot++;
+                bindings.define(node.name.name, node);
+            } else {
+                // assigned again in the same block, reuse the slot
+                node.depth = introducing.depth;
+                node.slot = introducing.slot;
+            }
+            node.name.assignment = introducing;
+            return null;
+        }
+
+        @Override
+        public Void visitVariableReference(VariableReference node) {
+            node.assignment = bindings.lookup(node.name);
+            return null;
+        }
+    };
+}
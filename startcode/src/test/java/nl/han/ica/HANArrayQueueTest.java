@@ -0,0 +1,73 @@
+package nl.han.ica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HANArrayQueueTest {
+        private HANArrayQueue<Integer> queue;
+
+        @BeforeEach
+        void setUp() {
+            queue = new HANArrayQueue<>();
+        }
+
+        @Test
+        void enqueueDequeueIsFifo() {
+            queue.enqueue(1);
+            queue.enqueue(2);
+            assertEquals(1, queue.dequeue());
+            assertEquals(2, queue.dequeue());
+            assertNull(queue.dequeue());
+        }
+
+        @Test
+        void peek() {
+            queue.enqueue(1);
+            assertEquals(1, queue.peek());
+            assertEquals(1, queue.getSize());
+        }
+
+        @Test
+        void growsInPowersOfTwoAndKeepsOrderAfterWrapping() {
+            for (int i = 0; i < 10; i++) {
+                queue.enqueue(i);
+            }
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, queue.dequeue());
+            }
+            for (int i = 0; i < 40; i++) {
+                queue.enqueue(i);
+            }
+            assertEquals(64, queue.getCapacity());
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i, queue.dequeue());
+            }
+            assertTrue(queue.isEmpty());
+        }
+
+        @Test
+        void boundedQueueRejectsWhenFull() {
+            HANArrayQueue<Integer> bounded = new HANArrayQueue<>(3);
+            assertTrue(bounded.offer(1));
+            assertTrue(bounded.offer(2));
+            assertTrue(bounded.offer(3));
+            assertFalse(bounded.offer(4));
+            assertThrows(IllegalStateException.class, () -> bounded.enqueue(4));
+            assertEquals(1, bounded.dequeue());
+            assertTrue(bounded.offer(4));
+            assertEquals(3, bounded.getCapacity());
+            assertEquals(2, bounded.dequeue());
+            assertEquals(3, bounded.dequeue());
+            assertEquals(4, bounded.dequeue());
+        }
+
+        @Test
+        void clear() {
+            queue.enqueue(1);
+            queue.clear();
+            assertTrue(queue.isEmpty());
+            assertNull(queue.peek());
+        }
+    }
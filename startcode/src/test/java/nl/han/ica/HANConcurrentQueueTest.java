@@ -0,0 +1,113 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HANConcurrentQueueTest {
+        private static final int PRODUCERS = 8;
+        private static final int CONSUMERS = 8;
+        private static final int PER_PRODUCER = 50_000;
+
+        @Test
+        void singleThreadedFifo() {
+            HANConcurrentQueue<Integer> queue = new HANConcurrentQueue<>();
+            queue.enqueue(1);
+            queue.enqueue(2);
+            assertEquals(1, queue.peek());
+            assertEquals(1, queue.dequeue());
+            assertEquals(2, queue.dequeue());
+            assertNull(queue.dequeue());
+            assertTrue(queue.isEmpty());
+        }
+
+        @Test
+        void lockFreeQueueLosesAndDuplicatesNothing() throws Exception {
+            hammer(new HANConcurrentQueue<>());
+        }
+
+        @Test
+        void blockingQueueLosesAndDuplicatesNothing() throws Exception {
+            hammer(new HANBlockingQueue<>(64));
+        }
+
+        @Test
+        void blockingQueueAppliesBackpressure() throws Exception {
+            HANBlockingQueue<Integer> queue = new HANBlockingQueue<>(1);
+            queue.put(1);
+            assertFalse(queue.offer(2));
+            assertFalse(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> producer = executor.submit(() -> queue.enqueue(2));
+                Thread.sleep(50);
+                assertFalse(producer.isDone());
+                assertEquals(1, queue.take());
+                producer.get(5, TimeUnit.SECONDS);
+                assertEquals(2, queue.take());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void hammer(IHANQueue<Integer> queue) throws Exception {
+            int total = PRODUCERS * PER_PRODUCER;
+            AtomicInteger[] seen = new AtomicInteger[total];
+            for (int i = 0; i < total; i++) {
+                seen[i] = new AtomicInteger();
+            }
+            AtomicInteger consumed = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + CONSUMERS);
+            List<Future<?>> futures = new ArrayList<>();
+            try {
+                for (int p = 0; p < PRODUCERS; p++) {
+                    int offset = p * PER_PRODUCER;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < PER_PRODUCER; i++) {
+                            queue.enqueue(offset + i);
+                        }
+                        return null;
+                    }));
+                }
+                for (int c = 0; c < CONSUMERS; c++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        while (consumed.get() < total) {
+                            Integer value = queue.dequeue();
+                            if (value != null) {
+                                seen[value].incrementAndGet();
+                                consumed.incrementAndGet();
+                            } else {
+                                Thread.yield();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            for (int i = 0; i < total; i++) {
+                assertEquals(1, seen[i].get(), "value " + i);
+            }
+            assertTrue(queue.isEmpty());
+            assertEquals(0, queue.getSize());
+        }
+    }
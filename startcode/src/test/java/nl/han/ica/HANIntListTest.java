@@ -0,0 +1,47 @@
+package nl.han.ica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HANIntListTest {
+        private HANIntList list;
+
+        @BeforeEach
+        void setUp() {
+            list = new HANIntList(2);
+        }
+
+        @Test
+        void addGrowsBeyondInitialCapacity() {
+            for (int i = 0; i < 100; i++) {
+                list.add(i);
+            }
+            assertEquals(100, list.getSize());
+            assertEquals(99, list.get(99));
+        }
+
+        @Test
+        void insertAndDelete() {
+            list.add(1);
+            list.add(3);
+            list.insert(1, 2);
+            assertEquals(2, list.get(1));
+            list.delete(0);
+            assertEquals(2, list.get(0));
+            assertEquals(2, list.getSize());
+        }
+
+        @Test
+        void set() {
+            list.add(1);
+            list.set(0, 5);
+            assertEquals(5, list.get(0));
+        }
+
+        @Test
+        void getOutOfBounds() {
+            assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+        }
+    }
@@ -0,0 +1,47 @@
+package nl.han.ica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HANIntStackTest {
+        private HANIntStack stack;
+
+        @BeforeEach
+        void setUp() {
+            stack = new HANIntStack(1);
+        }
+
+        @Test
+        void pushPopPeek() {
+            stack.push(1);
+            stack.push(2);
+            assertEquals(2, stack.getSize());
+            assertEquals(2, stack.peek());
+            assertEquals(2, stack.pop());
+            assertEquals(1, stack.pop());
+            assertTrue(stack.isEmpty());
+        }
+
+        @Test
+        void pushGrowsBeyondInitialCapacity() {
+            for (int i = 0; i < 100; i++) {
+                stack.push(i);
+            }
+            assertEquals(100, stack.getSize());
+            assertEquals(99, stack.peek());
+        }
+
+        @Test
+        void emptyStack() {
+            assertThrows(NoSuchElementException.class, stack::pop);
+            assertThrows(NoSuchElementException.class, stack::peek);
+            stack.push(1);
+            stack.clear();
+            assertTrue(stack.isEmpty());
+            assertThrows(NoSuchElementException.class, stack::pop);
+        }
+    }
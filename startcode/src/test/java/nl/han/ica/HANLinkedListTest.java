@@ -3,6 +3,14 @@ package nl.han.ica;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HANLinkedListTest {
@@ -70,4 +78,87 @@ class HANLinkedListTest {
             assertTrue(list.iterator().hasNext());
             assertEquals(1, list.iterator().next());
         }
+
+        @Test
+        void addLast() {
+            list.addFirst(1);
+            list.addLast(2);
+            assertEquals(2, list.getLast());
+            assertEquals(2, list.get(1));
+        }
+
+        @Test
+        void insertInMiddleAndAtEnd() {
+            list.addFirst(3);
+            list.addFirst(1);
+            list.insert(1, 2);
+            list.insert(3, 4);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i + 1, list.get(i));
+            }
+            assertEquals(4, list.getLast());
+        }
+
+        @Test
+        void deleteLastUpdatesTail() {
+            list.addFirst(2);
+            list.addFirst(1);
+            list.delete(1);
+            assertEquals(1, list.getLast());
+            list.addLast(3);
+            assertEquals(3, list.get(1));
+        }
+
+        @Test
+        void removeFirstOnEmptyList() {
+            assertThrows(NoSuchElementException.class, () -> list.removeFirst());
+        }
+
+        @Test
+        void removeFirstUntilEmptyResetsTail() {
+            list.addFirst(1);
+            list.removeFirst();
+            list.addLast(2);
+            assertEquals(2, list.getFirst());
+            assertEquals(2, list.getLast());
+        }
+
+        @Test
+        void iteratorFailsFastAfterModification() {
+            list.addFirst(1);
+            list.addFirst(2);
+            Iterator<Integer> iterator = list.iterator();
+            iterator.next();
+            list.addFirst(3);
+            assertThrows(ConcurrentModificationException.class, iterator::next);
+        }
+
+        @Test
+        void spliteratorSplitsIntoExactlySizedHalves() {
+            for (int i = 0; i < 5; i++) {
+                list.addLast(i);
+            }
+            Spliterator<Integer> suffix = list.spliterator();
+            assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            Spliterator<Integer> prefix = suffix.trySplit();
+            assertEquals(2, prefix.estimateSize());
+            assertEquals(3, suffix.estimateSize());
+            List<Integer> seen = new ArrayList<>();
+            prefix.forEachRemaining(seen::add);
+            suffix.forEachRemaining(seen::add);
+            assertEquals(List.of(0, 1, 2, 3, 4), seen);
+        }
+
+        @Test
+        void parallelStreamKeepsOrder() {
+            for (int i = 0; i < 10_000; i++) {
+                list.addLast(i);
+            }
+            List<Integer> collected = list.parallelStream().map(i -> i * 2).collect(Collectors.toList());
+            assertEquals(10_000, collected.size());
+            for (int i = 0; i < collected.size(); i++) {
+                assertEquals(i * 2, collected.get(i));
+            }
+            assertEquals(49_995_000L, list.parallelStream().mapToLong(Integer::longValue).sum());
+        }
     }
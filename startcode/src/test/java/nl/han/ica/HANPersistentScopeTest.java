@@ -0,0 +1,70 @@
+package nl.han.ica;
+
+import nl.han.ica.datastructures.IHANScope;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HANPersistentScopeTest {
+
+        @Test
+        void innerScopeShadowsAndExitRestores() {
+            IHANScope<String, Integer> global = new HANPersistentScope<String, Integer>().define("A", 1);
+            IHANScope<String, Integer> inner = global.enter().define("A", 2).define("B", 3);
+            assertEquals(2, inner.lookup("A"));
+            assertEquals(3, inner.lookup("B"));
+            assertEquals(1, inner.getDepth());
+
+            IHANScope<String, Integer> outer = inner.exit();
+            assertEquals(1, outer.lookup("A"));
+            assertFalse(outer.isDefined("B"));
+        }
+
+        @Test
+        void forkedScopesDoNotSeeEachOther() {
+            IHANScope<String, Integer> global = new HANPersistentScope<String, Integer>().define("A", 1);
+            IHANScope<String, Integer> left = global.enter().define("L", 1);
+            IHANScope<String, Integer> right = global.enter().define("R", 1);
+            assertFalse(left.isDefined("R"));
+            assertFalse(right.isDefined("L"));
+            assertFalse(global.isDefined("L"));
+        }
+
+        @Test
+        void exitOutermostScope() {
+            assertThrows(IllegalStateException.class, () -> new HANPersistentScope<String, Integer>().exit());
+        }
+
+        @Test
+        void persistentMapMatchesHashMap() {
+            Random random = new Random(42);
+            Map<Integer, Integer> expected = new HashMap<>();
+            HANPersistentMap<Integer, Integer> map = HANPersistentMap.empty();
+            for (int i = 0; i < 20_000; i++) {
+                int key = random.nextInt(5_000);
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assertEquals(expected.size(), map.getSize());
+            for (int key = 0; key < 5_000; key++) {
+                assertEquals(expected.get(key), map.get(key));
+            }
+        }
+
+        @Test
+        void persistentMapHandlesHashCollisions() {
+            // "Aa" and "BB" share the same hashCode
+            HANPersistentMap<String, Integer> map = HANPersistentMap.<String, Integer>empty()
+                    .put("Aa", 1)
+                    .put("BB", 2);
+            HANPersistentMap<String, Integer> updated = map.put("Aa", 3);
+            assertEquals(2, updated.getSize());
+            assertEquals(3, updated.get("Aa"));
+            assertEquals(2, updated.get("BB"));
+            assertEquals(1, map.get("Aa"));
+        }
+    }
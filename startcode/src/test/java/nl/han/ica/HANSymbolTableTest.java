@@ -0,0 +1,58 @@
+package nl.han.ica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HANSymbolTableTest {
+        private HANSymbolTable<Integer> table;
+
+        @BeforeEach
+        void setUp() {
+            table = new HANSymbolTable<>();
+        }
+
+        @Test
+        void innerBindingShadowsOuterUntilScopeExits() {
+            table.define("A", 1);
+            table.enterScope();
+            table.define("A", 2);
+            table.define("B", 3);
+            assertEquals(2, table.lookup("A"));
+            table.exitScope();
+            assertEquals(1, table.lookup("A"));
+            assertFalse(table.isDefined("B"));
+        }
+
+        @Test
+        void redefinitionInSameScopeIsUndoneOnce() {
+            table.define("A", 1);
+            table.enterScope();
+            table.define("A", 2);
+            table.define("A", 3);
+            assertEquals(3, table.lookup("A"));
+            table.exitScope();
+            assertEquals(1, table.lookup("A"));
+        }
+
+        @Test
+        void deepNesting() {
+            for (int depth = 0; depth < 50; depth++) {
+                table.enterScope();
+                table.define("V" + depth, depth);
+            }
+            assertEquals(50, table.getDepth());
+            assertEquals(0, table.lookup("V0"));
+            for (int depth = 49; depth >= 0; depth--) {
+                assertEquals(depth, table.lookup("V" + depth));
+                table.exitScope();
+                assertNull(table.lookup("V" + depth));
+            }
+        }
+
+        @Test
+        void exitGlobalScope() {
+            assertThrows(IllegalStateException.class, () -> table.exitScope());
+        }
+    }
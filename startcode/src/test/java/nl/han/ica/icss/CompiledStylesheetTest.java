@@ -0,0 +1,109 @@
+package nl.han.ica.icss;
+
+import nl.han.ica.icss.ast.Literal;
+import nl.han.ica.icss.ast.literals.BoolLiteral;
+import nl.han.ica.icss.ast.literals.ColorLiteral;
+import nl.han.ica.icss.ast.literals.PercentageLiteral;
+import nl.han.ica.icss.ast.literals.PixelLiteral;
+import nl.han.ica.icss.ast.literals.ScalarLiteral;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledStylesheetTest {
+
+	String readResource(String resource) throws IOException {
+		try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resource)) {
+			return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	String generate(String input) {
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString(input);
+		assertTrue(pipeline.check(), pipeline.getErrors().toString());
+		pipeline.transform();
+		return pipeline.generate();
+	}
+
+	@Test
+	void testRenderMatchesPipeline() throws IOException {
+		for (String level : new String[]{"level0.icss", "level1.icss", "level2.icss", "level3.icss"}) {
+			String source = readResource(level);
+			assertEquals(generate(source), CompiledStylesheet.compile(source).render(), level);
+		}
+	}
+
+	@Test
+	void testRenderWithBindingsMatchesEditedSource() throws IOException {
+		String source = readResource("level3.icss");
+		CompiledStylesheet stylesheet = CompiledStylesheet.compile(source);
+
+		String rendered = stylesheet.render(Map.of(
+				"LinkColor", new ColorLiteral("#00ff00"),
+				"ParWidth", new PixelLiteral(300),
+				"UseLinkColor", new BoolLiteral(true)));
+
+		String edited = source.replace("#ff0000", "#00ff00").replace("500px", "300px")
+				.replace("UseLinkColor := FALSE", "UseLinkColor := TRUE");
+		assertEquals(generate(edited), rendered);
+		assertEquals(Set.of("LinkColor", "ParWidth", "AdjustColor", "UseLinkColor"), stylesheet.getVariables());
+	}
+
+	@Test
+	void testLocalVariablesAndReassignedGlobals() {
+		String source = "W := 10px; W := W + 5px; p { L := W * 2; width: L; height: 3px + 4px; if[TRUE] { top: L - 1px; } }";
+		CompiledStylesheet stylesheet = CompiledStylesheet.compile(source);
+
+		assertEquals(generate(source), stylesheet.render());
+		assertEquals(generate(source.replace("10px", "1px").replace("W + 5px", "1px")),
+				stylesheet.render(Map.<String, Literal>of("W", new PixelLiteral(1))));
+	}
+
+	@Test
+	void testInvalidBindings() {
+		CompiledStylesheet stylesheet = CompiledStylesheet.compile("W := 10px; p { width: W; }");
+
+		assertThrows(IllegalArgumentException.class, () -> stylesheet.render(Map.of("Missing", new PixelLiteral(1))));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> stylesheet.render(Map.of("W", new ColorLiteral("#000000"))));
+		assertEquals("W must have a pixel value.", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> CompiledStylesheet.compile("p { width: #000000; }"));
+
+		CompiledStylesheet percentage = CompiledStylesheet.compile("G := 2 * 10%; p { width: 10px; }");
+		assertEquals(Set.of("G"), percentage.getVariables());
+		assertEquals(percentage.render(), percentage.render(Map.of("G", new PercentageLiteral(20))));
+		e = assertThrows(IllegalArgumentException.class, () -> percentage.render(Map.of("G", new ScalarLiteral(20))));
+		assertEquals("G must have a percentage value.", e.getMessage());
+	}
+
+	@Test
+	void testGlobalReassignedWithAnotherType() {
+		String source = "X := 5; Y := X * 3px; X := 10px; p { width: X * 2; height: Y; }";
+		CompiledStylesheet stylesheet = CompiledStylesheet.compile(source);
+
+		assertEquals(generate(source), stylesheet.render());
+		assertTrue(stylesheet.render().contains("width: 20px;"));
+		assertEquals(Set.of("Y"), stylesheet.getVariables());
+		assertThrows(IllegalArgumentException.class, () -> stylesheet.render(Map.of("X", new PixelLiteral(1))));
+		assertEquals(generate(source.replace("X * 3px", "7px")), stylesheet.render(Map.of("Y", new PixelLiteral(7))));
+	}
+
+	@Test
+	void testOverriddenDeclarationsDependingOnGlobals() {
+		String source = "C := TRUE; W := 5px; p { width: 1px; color: #000000; if[C] { width: W; L := W * 2; height: L; } else { color: #ffffff; } height: 3px; width: 4px; }";
+		CompiledStylesheet stylesheet = CompiledStylesheet.compile(source);
+
+		assertEquals(generate(source), stylesheet.render());
+		assertEquals(generate(source.replace("C := TRUE", "C := FALSE")),
+				stylesheet.render(Map.<String, Literal>of("C", new BoolLiteral(false))));
+		assertEquals(generate(source.replace("W := 5px", "W := 7px").replace("width: 4px; ", "")),
+				CompiledStylesheet.compile(source.replace("width: 4px; ", "")).render(Map.<String, Literal>of("W", new PixelLiteral(7))));
+	}
+}
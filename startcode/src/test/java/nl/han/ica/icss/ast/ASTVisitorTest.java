@@ -0,0 +1,70 @@
+package nl.han.ica.icss.ast;
+
+import nl.han.ica.icss.ast.literals.PixelLiteral;
+import nl.han.ica.icss.ast.operations.MultiplyOperation;
+import nl.han.ica.icss.parser.Fixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ASTVisitorTest {
+
+	void assertChildrenMatch(ASTNode node) {
+		List<ASTNode> children = node.getChildren();
+		assertEquals(children.size(), node.childCount(), node.getNodeLabel());
+		for (int i = 0; i < children.size(); i++) {
+			assertSame(children.get(i), node.childAt(i), node.getNodeLabel());
+			assertChildrenMatch(children.get(i));
+		}
+	}
+
+	@Test
+	void testChildAtMatchesGetChildren() {
+		for (AST ast : new AST[]{Fixtures.uncheckedLevel0(), Fixtures.uncheckedLevel1(), Fixtures.uncheckedLevel2(), Fixtures.uncheckedLevel3()}) {
+			assertChildrenMatch(ast.root);
+		}
+	}
+
+	@Test
+	void testChildAtOutOfRange() {
+		Declaration declaration = new Declaration("width");
+		assertThrows(IndexOutOfBoundsException.class, () -> declaration.childAt(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> new PixelLiteral(1).childAt(0));
+	}
+
+	@Test
+	void testAcceptDispatchesOnConcreteType() {
+		List<String> visited = new ArrayList<>();
+		ASTVisitor<Void> visitor = new ASTVisitor<Void>() {
+			@Override
+			public Void visitNode(ASTNode node) {
+				for (int i = 0; i < node.childCount(); i++) {
+					node.childAt(i).accept(this);
+				}
+				return null;
+			}
+
+			@Override
+			public Void visitOperation(Operation node) {
+				visited.add("operation");
+				return visitNode(node);
+			}
+
+			@Override
+			public Void visitLiteral(Literal node) {
+				visited.add(node.getClass().getSimpleName());
+				return null;
+			}
+		};
+		MultiplyOperation operation = new MultiplyOperation();
+		operation.lhs = new PixelLiteral(2);
+		operation.rhs = new PixelLiteral(3);
+
+		operation.accept(visitor);
+
+		assertEquals(List.of("operation", "PixelLiteral", "PixelLiteral"), visited);
+	}
+}
@@ -0,0 +1,40 @@
+package nl.han.ica.icss.ast;
+
+import nl.han.ica.icss.ast.literals.BoolLiteral;
+import nl.han.ica.icss.ast.selectors.TagSelector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpliceChildrenTest {
+
+	@Test
+	void testStyleruleSplicesRealBody() {
+		Declaration a = new Declaration("a");
+		Declaration b = new Declaration("b");
+		Declaration c = new Declaration("c");
+		Stylerule rule = new Stylerule(new TagSelector("p"), new ArrayList<>(List.of(a, b)));
+
+		rule.spliceChildren(1, 2, List.of(c, b));
+
+		assertEquals(List.of(c, b, b), rule.body);
+		assertThrows(IndexOutOfBoundsException.class, () -> rule.spliceChildren(0, 1, List.of()));
+	}
+
+	@Test
+	void testReplaceChild() {
+		Declaration a = new Declaration("a");
+		Declaration b = new Declaration("b");
+		IfClause ifClause = new IfClause(new BoolLiteral(true), new ArrayList<>(List.of(a)), new ElseClause());
+
+		ifClause.replaceChild(1, b);
+		ifClause.replaceChild(0, new BoolLiteral(false));
+
+		assertEquals(List.of(b), ifClause.body);
+		assertEquals(new BoolLiteral(false), ifClause.conditionalExpression);
+		assertThrows(UnsupportedOperationException.class, () -> new PropertyName("x").replaceChild(0, a));
+	}
+}
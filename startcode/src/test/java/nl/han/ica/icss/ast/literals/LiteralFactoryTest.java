@@ -0,0 +1,46 @@
+package nl.han.ica.icss.ast.literals;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.Declaration;
+import nl.han.ica.icss.ast.Stylerule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiteralFactoryTest {
+
+	@Test
+	void testSmallValuesAreShared() {
+		assertSame(LiteralFactory.pixel(0), LiteralFactory.parsePixel("0px"));
+		assertSame(LiteralFactory.percentage(100), LiteralFactory.parsePercentage("100%"));
+		assertSame(LiteralFactory.scalar(LiteralFactory.MAX_CACHED_VALUE), LiteralFactory.parseScalar("256"));
+		assertSame(LiteralFactory.bool(true), LiteralFactory.parseBool("TRUE"));
+		assertEquals(new BoolLiteral(false), LiteralFactory.parseBool("FALSE"));
+	}
+
+	@Test
+	void testLargeAndNegativeValuesAreNotCached() {
+		assertNotSame(LiteralFactory.pixel(1000), LiteralFactory.pixel(1000));
+		assertEquals(new PixelLiteral(1000), LiteralFactory.parsePixel("1000px"));
+		assertEquals(new ScalarLiteral(-5), LiteralFactory.scalar(-5));
+		assertEquals(new ScalarLiteral(12345678), LiteralFactory.parseScalar("0000000012345678"));
+	}
+
+	@Test
+	void testColorsAreInterned() {
+		ColorLiteral color = LiteralFactory.color("#ff0000");
+		assertSame(color, LiteralFactory.color(new String("#ff0000")));
+		assertEquals("#00ff00", LiteralFactory.color("#00ff00").value);
+	}
+
+	@Test
+	void testParserSharesLiterals() {
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString("p { width: 10px; height: 10px; color: #123456; } a { color: #123456; }");
+		Stylerule p = (Stylerule) pipeline.getAST().root.body.get(0);
+		Stylerule a = (Stylerule) pipeline.getAST().root.body.get(1);
+
+		assertSame(((Declaration) p.body.get(0)).expression, ((Declaration) p.body.get(1)).expression);
+		assertSame(((Declaration) p.body.get(2)).expression, ((Declaration) a.body.get(0)).expression);
+	}
+}
@@ -0,0 +1,185 @@
+package nl.han.ica.icss.checker;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.AST;
+import nl.han.ica.icss.ast.Declaration;
+import nl.han.ica.icss.ast.Stylerule;
+import nl.han.ica.icss.ast.types.ExpressionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckerTest {
+
+	AST parse(String input) {
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString(input);
+		assertTrue(pipeline.isParsed(), pipeline.getErrors().toString());
+		return pipeline.getAST();
+	}
+
+	String readResource(String resource) throws IOException {
+		try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resource)) {
+			return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	List<SemanticError> check(String input) {
+		AST ast = parse(input);
+		new Checker().check(ast);
+		return ast.getErrors();
+	}
+
+	@Test
+	void testLevelFilesAreValid() throws IOException {
+		for (String level : new String[]{"level0.icss", "level1.icss", "level2.icss", "level3.icss"}) {
+			assertTrue(check(readResource(level)).isEmpty(), level);
+		}
+	}
+
+	@Test
+	void testUndefinedVariable() {
+		List<SemanticError> errors = check("p { width: Missing; }");
+		assertEquals(2, errors.size());
+		assertEquals("Variable Missing is not defined.", errors.get(1).description);
+	}
+
+	@Test
+	void testVariableOutOfScope() {
+		List<SemanticError> errors = check("p { Local := 10px; } a { width: Local; }");
+		assertEquals(2, errors.size());
+		assertEquals("Variable Local is not defined.", errors.get(1).description);
+	}
+
+	@Test
+	void testColorInArithmetic() {
+		List<SemanticError> errors = check("p { background-color: #ffffff * 2; }");
+		assertEquals("Colors cannot be used in arithmetic operations.", errors.get(0).description);
+	}
+
+	@Test
+	void testMixedOperands() {
+		List<SemanticError> errors = check("p { width: 10px + 10%; }");
+		assertEquals(2, errors.size());
+		assertEquals("width must have a pixel value.", errors.get(0).description);
+		assertEquals("Operands of + must be of the same type.", errors.get(1).description);
+	}
+
+	@Test
+	void testOneErrorPerOperation() {
+		AST ast = parse("p { background-color: #ffffff + 10px; }");
+		SemanticErrorCollector collector = new SemanticErrorCollector();
+		Checker checker = new Checker();
+		checker.setErrorCollector(collector);
+		checker.check(ast);
+		assertEquals(1, collector.getErrors().size(), collector.getErrors().toString());
+		assertEquals("Operands of + must be of the same type.", collector.getErrors().get(0).description);
+	}
+
+	@Test
+	void testTypesAreComputedBottomUp() {
+		AST ast = parse("W := 10px; p { width: W + 2 * 5px; }");
+		Checker checker = new Checker();
+		checker.check(ast);
+		assertTrue(ast.getErrors().isEmpty());
+		Declaration width = (Declaration) ((Stylerule) ast.root.body.get(1)).body.get(0);
+		assertEquals(ExpressionType.PIXEL, checker.getExpressionType(width.expression));
+	}
+
+	@Test
+	void testLongExpressionChain() {
+		StringBuilder input = new StringBuilder("p { width: 1px");
+		for (int i = 0; i < 500; i++) {
+			input.append(" + 1px");
+		}
+		input.append("; }");
+		assertTrue(check(input.toString()).isEmpty());
+	}
+
+	@Test
+	void testParallelCheckMatchesSequential() {
+		StringBuilder input = new StringBuilder("Base := 10px;\n");
+		for (int i = 0; i < 3 * Checker.PARALLEL_THRESHOLD; i++) {
+			if (i == Checker.PARALLEL_THRESHOLD) {
+				input.append("Late := #ff0000;\n");
+			}
+			input.append("#r").append(i).append(" { width: Base + ").append(i).append("px; ");
+			input.append("Local := 2; height: Local * Base; color: Late; ");
+			input.append(i % 7 == 0 ? "width: Base + 10%; }\n" : "}\n");
+		}
+		AST sequentialAst = parse(input.toString());
+		new Checker().check(sequentialAst);
+		AST parallelAst = parse(input.toString());
+		Checker parallel = new Checker();
+		parallel.setParallel(true);
+		parallel.check(parallelAst);
+
+		List<SemanticError> expected = sequentialAst.getErrors();
+		List<SemanticError> actual = parallelAst.getErrors();
+		assertFalse(expected.isEmpty());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).toString(), actual.get(i).toString());
+		}
+	}
+
+	@Test
+	void testCollectorStopsAtMaxErrors() {
+		AST ast = parse("p { width: A; height: B; color: C; } a { width: D; }");
+		SemanticErrorCollector collector = new SemanticErrorCollector(3, false);
+		Checker checker = new Checker();
+		checker.setErrorCollector(collector);
+		checker.check(ast);
+		assertEquals(3, collector.getErrors().size());
+		assertEquals("Variable A is not defined.", collector.getErrors().get(0).description);
+		assertEquals("width must have a pixel value.", collector.getErrors().get(1).description);
+		assertFalse(((Stylerule) ast.root.body.get(1)).body.get(0).hasError());
+	}
+
+	@Test
+	void testFailFastParallelMatchesSequential() {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 2 * Checker.PARALLEL_THRESHOLD; i++) {
+			input.append("#r").append(i).append(i == 1500 ? " { width: 1%; }\n" : " { width: 1px; }\n");
+		}
+		input.append("Late := Missing;\n");
+		for (boolean parallel : new boolean[]{false, true}) {
+			SemanticErrorCollector collector = new SemanticErrorCollector(100, true);
+			Checker checker = new Checker();
+			checker.setParallel(parallel);
+			checker.setErrorCollector(collector);
+			checker.check(parse(input.toString()));
+			assertEquals(1, collector.getErrors().size());
+			assertEquals("width must have a pixel value.", collector.getErrors().get(0).description);
+		}
+	}
+
+	@Test
+	void testCustomPropertySchema() {
+		PropertySchema schema = PropertySchema.load(new ByteArrayInputStream(
+				"# test\nwidth: PIXEL | PERCENTAGE\nbackground-color: COLOR\n".getBytes(StandardCharsets.UTF_8)));
+		assertTrue(schema.allows("width", ExpressionType.PERCENTAGE));
+		assertFalse(schema.allows("width", ExpressionType.COLOR));
+		assertEquals(PropertySchema.ANY_TYPE, schema.allowedTypes("height"));
+
+		AST ast = parse("p { width: 50%; background-color: 10px; }");
+		Checker checker = new Checker();
+		checker.setPropertySchema(schema);
+		checker.check(ast);
+		List<SemanticError> errors = ast.getErrors();
+		assertEquals(1, errors.size());
+		assertEquals("background-color must have a color value.", errors.get(0).description);
+	}
+
+	@Test
+	void testMalformedPropertySchema() {
+		assertThrows(IllegalArgumentException.class, () -> PropertySchema.load(new ByteArrayInputStream(
+				"width: PIXELS\n".getBytes(StandardCharsets.UTF_8))));
+	}
+}
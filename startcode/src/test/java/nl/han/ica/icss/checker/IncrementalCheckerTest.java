@@ -0,0 +1,87 @@
+package nl.han.ica.icss.checker;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.AST;
+import nl.han.ica.icss.ast.Declaration;
+import nl.han.ica.icss.ast.Stylerule;
+import nl.han.ica.icss.ast.VariableAssignment;
+import nl.han.ica.icss.ast.literals.ColorLiteral;
+import nl.han.ica.icss.ast.literals.PixelLiteral;
+import nl.han.ica.icss.ast.selectors.TagSelector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalCheckerTest {
+
+	private AST ast;
+	private IncrementalChecker checker;
+
+	@BeforeEach
+	void setUp() {
+		StringBuilder input = new StringBuilder("Width := 10px;\nColor := #ff0000;\n");
+		for (int i = 0; i < 100; i++) {
+			input.append("#r").append(i).append(i % 10 == 0 ? " { width: Width; }\n" : " { color: Color; }\n");
+		}
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString(input.toString());
+		ast = pipeline.getAST();
+		checker = new IncrementalChecker();
+		assertTrue(checker.check(ast).isEmpty());
+		assertEquals(102, checker.getRecheckedCount());
+	}
+
+	@Test
+	void testEditedDeclarationOnlyRechecksItsRule() {
+		Declaration declaration = (Declaration) ((Stylerule) ast.root.body.get(3)).body.get(0);
+		declaration.expression = new PixelLiteral(5);
+		List<SemanticError> errors = checker.recheck(Set.of(declaration), Set.of());
+		assertEquals(1, checker.getRecheckedCount());
+		assertEquals(1, errors.size());
+		assertEquals("color must have a color value.", errors.get(0).description);
+
+		declaration.expression = new ColorLiteral("#000000");
+		assertTrue(checker.recheck(Set.of(declaration), Set.of()).isEmpty());
+		assertFalse(declaration.hasError());
+	}
+
+	@Test
+	void testChangedGlobalTypeRechecksOnlyItsReaders() {
+		VariableAssignment width = (VariableAssignment) ast.root.body.get(0);
+		width.expression = new ColorLiteral("#000000");
+		List<SemanticError> errors = checker.recheck(Set.of(width), Set.of());
+		// the assignment itself plus the ten rules that read Width
+		assertEquals(11, checker.getRecheckedCount());
+		assertEquals(10, errors.size());
+	}
+
+	@Test
+	void testUnchangedGlobalTypeStopsPropagation() {
+		VariableAssignment width = (VariableAssignment) ast.root.body.get(0);
+		width.expression = new PixelLiteral(20);
+		assertTrue(checker.recheck(Set.of(width), Set.of()).isEmpty());
+		assertEquals(1, checker.getRecheckedCount());
+	}
+
+	@Test
+	void testRemovedAssignmentReportsItsReaders() {
+		ast.root.body.remove(1);
+		List<SemanticError> errors = checker.recheck(Set.of(ast.root), Set.of());
+		assertEquals(90, checker.getRecheckedCount());
+		assertEquals(180, errors.size());
+	}
+
+	@Test
+	void testAddedRuleIsChecked() {
+		ast.root.body.add(new Stylerule(new TagSelector("p"), new ArrayList<>(List.of(
+				new Declaration("width").addChild(new ColorLiteral("#000000"))))));
+		List<SemanticError> errors = checker.recheck(Set.of(ast.root), Set.of());
+		assertEquals(1, checker.getRecheckedCount());
+		assertEquals(1, errors.size());
+	}
+}
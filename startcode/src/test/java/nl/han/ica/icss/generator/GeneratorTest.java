@@ -0,0 +1,145 @@
+package nl.han.ica.icss.generator;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.AST;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratorTest {
+
+	AST transform(String input) {
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString(input);
+		assertTrue(pipeline.check(), pipeline.getErrors().toString());
+		pipeline.transform();
+		return pipeline.getAST();
+	}
+
+	String readResource(String resource) throws IOException {
+		try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resource)) {
+			return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	String largeStylesheet() {
+		StringBuilder input = new StringBuilder("W := 10px;");
+		for (int i = 0; i < 5000; i++) {
+			input.append(" #id").append(i).append(" { width: W + ").append(i)
+					.append("px; color: #00ff00; }");
+		}
+		return input.toString();
+	}
+
+	@Test
+	void testStreamingMatchesString() throws IOException {
+		for (String input : new String[]{readResource("level3.icss"), largeStylesheet()}) {
+			AST ast = transform(input);
+			String expected = new Generator().generate(ast);
+
+			StringWriter writer = new StringWriter();
+			new Generator().generate(ast, writer);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (WritableByteChannel channel = Channels.newChannel(bytes)) {
+				new Generator().generate(ast, channel);
+			}
+
+			assertEquals(expected, writer.toString());
+			assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void testStreamingWritesBoundedChunks() throws IOException {
+		AST ast = transform(largeStylesheet());
+		int[] largestChunk = new int[1];
+		StringBuilder out = new StringBuilder();
+
+		new Generator().generate(ast, new Appendable() {
+			@Override
+			public Appendable append(CharSequence chunk) {
+				largestChunk[0] = Math.max(largestChunk[0], chunk.length());
+				out.append(chunk);
+				return this;
+			}
+
+			@Override
+			public Appendable append(CharSequence chunk, int start, int end) {
+				return append(chunk.subSequence(start, end));
+			}
+
+			@Override
+			public Appendable append(char c) {
+				return append(String.valueOf(c));
+			}
+		});
+
+		assertTrue(out.length() > 20 * Generator.BUFFER_SIZE);
+		assertTrue(largestChunk[0] < Generator.BUFFER_SIZE + 100, String.valueOf(largestChunk[0]));
+	}
+
+	@Test
+	void testMinify() {
+		AST ast = transform("p { width: 0px; color: #aabbcc; background-color: #aabbcd; } a { if[FALSE] { width: 1px; } } #main { width: 10px; }");
+		Generator generator = new Generator();
+		generator.setMinify(true);
+
+		assertEquals("p{width:0;color:#abc;background-color:#aabbcd}#main{width:10px}", generator.generate(ast));
+	}
+
+	@Test
+	void testMinifiedLevelsAreSmaller() throws IOException {
+		for (String level : new String[]{"level0.icss", "level1.icss", "level2.icss", "level3.icss"}) {
+			AST ast = transform(readResource(level));
+			Generator generator = new Generator();
+			String pretty = generator.generate(ast);
+			generator.setMinify(true);
+			String minified = generator.generate(ast);
+
+			assertTrue(minified.length() < pretty.length() * 3 / 4, level + ": " + minified.length() + " of " + pretty.length());
+		}
+	}
+
+	@Test
+	void testParallelMatchesSequential() throws IOException {
+		AST ast = transform(largeStylesheet());
+		for (boolean minify : new boolean[]{false, true}) {
+			Generator sequential = new Generator();
+			sequential.setMinify(minify);
+			Generator parallel = new Generator();
+			parallel.setMinify(minify);
+			parallel.setParallel(true);
+			String expected = sequential.generate(ast);
+
+			StringWriter writer = new StringWriter();
+			parallel.generate(ast, writer);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (WritableByteChannel channel = Channels.newChannel(bytes)) {
+				parallel.generate(ast, channel);
+			}
+
+			Path file = Files.createTempFile("generated", ".css");
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				parallel.generate(ast, channel);
+			}
+
+			assertEquals(expected, parallel.generate(ast));
+			assertEquals(expected, writer.toString());
+			assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+			assertEquals(expected, Files.readString(file));
+			Files.delete(file);
+		}
+	}
+}
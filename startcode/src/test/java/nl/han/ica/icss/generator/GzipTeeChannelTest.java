@@ -0,0 +1,63 @@
+package nl.han.ica.icss.generator;
+
+import nl.han.ica.icss.Pipeline;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipTeeChannelTest {
+
+	String gunzip(byte[] bytes) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	void testWritesPlainAndGzipCopyInOnePass() throws IOException {
+		StringBuilder input = new StringBuilder("W := 10px;");
+		for (int i = 0; i < 5000; i++) {
+			input.append(" #id").append(i).append(" { width: W + ").append(i).append("px; color: #00ff00; }");
+		}
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString(input.toString());
+		assertTrue(pipeline.check(), pipeline.getErrors().toString());
+		pipeline.transform();
+		String expected = pipeline.generate();
+
+		for (int level : new int[]{Deflater.NO_COMPRESSION, Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION}) {
+			ByteArrayOutputStream plain = new ByteArrayOutputStream();
+			ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+			try (WritableByteChannel plainChannel = Channels.newChannel(plain);
+				 WritableByteChannel gzipChannel = Channels.newChannel(gzip);
+				 GzipTeeChannel tee = new GzipTeeChannel(plainChannel, gzipChannel, level)) {
+				new Generator().generate(pipeline.getAST(), tee);
+			}
+
+			assertEquals(expected, plain.toString(StandardCharsets.UTF_8));
+			assertEquals(expected, gunzip(gzip.toByteArray()), "level " + level);
+			if (level != Deflater.NO_COMPRESSION) {
+				assertTrue(gzip.size() < plain.size() / 4);
+			}
+		}
+	}
+
+	@Test
+	void testEmptyOutput() throws IOException {
+		ByteArrayOutputStream plain = new ByteArrayOutputStream();
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		new GzipTeeChannel(Channels.newChannel(plain), Channels.newChannel(gzip), Deflater.DEFAULT_COMPRESSION).close();
+
+		assertEquals(0, plain.size());
+		assertEquals("", gunzip(gzip.toByteArray()));
+	}
+}
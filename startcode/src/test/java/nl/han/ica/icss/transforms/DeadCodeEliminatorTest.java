@@ -0,0 +1,65 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadCodeEliminatorTest {
+
+	AST parse(String input) {
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString(input);
+		assertTrue(pipeline.check(), pipeline.getErrors().toString());
+		return pipeline.getAST();
+	}
+
+	List<String> names(List<ASTNode> body) {
+		return body.stream()
+				.map(node -> node instanceof VariableAssignment ? ((VariableAssignment) node).name.name
+						: node instanceof Declaration ? ((Declaration) node).property.name : node.getNodeLabel())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void testUnusedAssignmentsAreRemoved() {
+		AST ast = parse("A := 1px; B := A; C := 2px; W := 3px; W := 4px; p { L := C; width: W; }");
+		DeadCodeEliminator eliminator = new DeadCodeEliminator(DeadCodeEliminator.Phase.BEFORE_EVALUATION);
+
+		eliminator.apply(ast);
+
+		// B is never read, so A is not either; L is never read, so C is not either; the first W is overwritten
+		assertEquals(List.of("W", "Stylerule"), names(ast.root.body));
+		assertEquals(List.of("width"), names(((Stylerule) ast.root.body.get(1)).body));
+		assertEquals(5, eliminator.getRemovedCount());
+	}
+
+	@Test
+	void testAssignmentsReadInBranchesAreKept() {
+		AST ast = parse("C := TRUE; W := 1px; p { if[C] { W := W + 1px; width: W; } else { height: W; } }");
+
+		new DeadCodeEliminator(DeadCodeEliminator.Phase.BEFORE_EVALUATION).apply(ast);
+
+		assertEquals(List.of("C", "W", "Stylerule"), names(ast.root.body));
+		IfClause ifClause = (IfClause) ((Stylerule) ast.root.body.get(2)).body.get(0);
+		assertEquals(List.of("W", "width"), names(ifClause.body));
+	}
+
+	@Test
+	void testOverriddenDeclarationsAreRemoved() {
+		AST ast = parse("p { width: 1px; color: #000000; if[TRUE] { width: 2px; } if[FALSE] { color: #ffffff; } }");
+		new Evaluator().apply(ast);
+		DeadCodeEliminator eliminator = new DeadCodeEliminator(DeadCodeEliminator.Phase.AFTER_EVALUATION);
+
+		eliminator.apply(ast);
+
+		Stylerule rule = (Stylerule) ast.root.body.get(0);
+		assertEquals(List.of("color", "width"), names(rule.body));
+		assertEquals("Pixel literal (2)", ((Declaration) rule.body.get(1)).expression.getNodeLabel());
+		assertEquals(1, eliminator.getRemovedCount());
+	}
+}
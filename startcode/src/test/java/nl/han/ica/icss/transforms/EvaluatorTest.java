@@ -0,0 +1,82 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.AST;
+import nl.han.ica.icss.ast.Declaration;
+import nl.han.ica.icss.ast.Stylerule;
+import nl.han.ica.icss.ast.literals.PixelLiteral;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluatorTest {
+
+	AST transform(String input) {
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString(input);
+		assertTrue(pipeline.check(), pipeline.getErrors().toString());
+		AST ast = pipeline.getAST();
+		new Evaluator().apply(ast);
+		return ast;
+	}
+
+	List<String> declarations(Stylerule rule) {
+		return rule.body.stream()
+				.filter(node -> node instanceof Declaration)
+				.map(node -> ((Declaration) node).property.name + ":" + ((Declaration) node).expression.getNodeLabel())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void testIfClausesAreFlattenedIntoRuleBody() {
+		AST ast = transform("A := TRUE; B := FALSE; p { width: 1px; if[A] { height: 2px; if[B] { color: #111111; } else { color: #222222; } } top: 3px; }");
+		Stylerule rule = (Stylerule) ast.root.body.get(2);
+
+		assertEquals(List.of("width:Pixel literal (1)", "height:Pixel literal (2)", "color:Color literal (#222222)", "top:Pixel literal (3)"),
+				declarations(rule));
+	}
+
+	@Test
+	void testOnlySelectedBranchIsEvaluated() {
+		AST ast = transform("C := FALSE; W := 1px; p { if[C] { W := 5px; } else { W := W + 1px; height: W; } }");
+		Stylerule rule = (Stylerule) ast.root.body.get(2);
+
+		Declaration height = (Declaration) rule.body.get(rule.body.size() - 1);
+		assertEquals(new PixelLiteral(2), height.expression);
+	}
+
+	@Test
+	void testAssignmentsAreBlockScoped() {
+		AST ast = transform("W := 1px; p { W := W + 1px; width: W; if[TRUE] { W := W * 3; height: W; } top: W; } a { width: W; }");
+		Stylerule p = (Stylerule) ast.root.body.get(1);
+		Stylerule a = (Stylerule) ast.root.body.get(2);
+
+		assertEquals(List.of("width:Pixel literal (2)", "height:Pixel literal (6)", "top:Pixel literal (2)"), declarations(p));
+		assertEquals(List.of("width:Pixel literal (1)"), declarations(a));
+	}
+
+	@Test
+	void testCompiledOnStaticTypesOfReassignedVariables() {
+		AST ast = transform("X := 5; Y := X * 2; X := 10px; p { width: X * 2 + Y * 1px; if[TRUE] { X := X + 1px; height: X; } }");
+		Stylerule rule = (Stylerule) ast.root.body.get(3);
+
+		assertEquals(List.of("width:Pixel literal (30)", "height:Pixel literal (11)"), declarations(rule));
+	}
+
+	@Test
+	void testManyIfClausesInOneRule() {
+		StringBuilder input = new StringBuilder("T := TRUE; p {");
+		for (int i = 0; i < 20000; i++) {
+			input.append(" if[T] { width: ").append(i).append("px; }");
+		}
+		input.append(" }");
+
+		Stylerule rule = (Stylerule) transform(input.toString()).root.body.get(1);
+
+		assertEquals(20000, rule.body.size());
+		assertEquals(new PixelLiteral(19999), ((Declaration) rule.body.get(19999)).expression);
+	}
+}
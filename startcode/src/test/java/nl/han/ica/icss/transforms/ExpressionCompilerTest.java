@@ -0,0 +1,79 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.icss.ast.Expression;
+import nl.han.ica.icss.ast.Literal;
+import nl.han.ica.icss.ast.VariableAssignment;
+import nl.han.ica.icss.ast.VariableReference;
+import nl.han.ica.icss.ast.literals.PercentageLiteral;
+import nl.han.ica.icss.ast.literals.PixelLiteral;
+import nl.han.ica.icss.ast.literals.ScalarLiteral;
+import nl.han.ica.icss.ast.operations.AddOperation;
+import nl.han.ica.icss.ast.operations.MultiplyOperation;
+import nl.han.ica.icss.ast.types.ExpressionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCompilerTest {
+
+	Literal[][] frames = new Literal[][]{new Literal[0], new Literal[2]};
+
+	ExpressionCompiler compiler = new ExpressionCompiler((depth, slot) -> CompiledExpression.typeOf(frames[depth][slot]));
+
+	VariableReference width() {
+		VariableAssignment assignment = new VariableAssignment();
+		assignment.depth = 1;
+		assignment.slot = 1;
+		VariableReference reference = new VariableReference("Width");
+		reference.assignment = assignment;
+		return reference;
+	}
+
+	AddOperation add(Expression lhs, Expression rhs) {
+		AddOperation operation = new AddOperation();
+		operation.lhs = lhs;
+		operation.rhs = rhs;
+		return operation;
+	}
+
+	@Test
+	void testConstantsAreFolded() {
+		MultiplyOperation multiply = new MultiplyOperation();
+		multiply.lhs = new ScalarLiteral(2);
+		multiply.rhs = add(new PixelLiteral(10), new PixelLiteral(5));
+
+		CompiledExpression compiled = compiler.compile(multiply);
+
+		assertTrue(compiled instanceof CompiledExpression.Constant);
+		assertEquals(new PixelLiteral(30), compiled.evaluate(frames));
+	}
+
+	@Test
+	void testKnownSlotTypeIsSpecialised() {
+		frames[1][1] = new PercentageLiteral(40);
+
+		CompiledExpression compiled = compiler.compile(add(width(), new PercentageLiteral(2)));
+
+		assertTrue(compiled instanceof CompiledExpression.IntAdd);
+		assertEquals(ExpressionType.PERCENTAGE, compiled.type);
+		frames[1][1] = new PercentageLiteral(8);
+		assertEquals(new PercentageLiteral(10), compiled.evaluate(frames));
+	}
+
+	@Test
+	void testUndefinedVariableEvaluatesToNull() {
+		CompiledExpression compiled = compiler.compile(add(new VariableReference("Missing"), new PixelLiteral(2)));
+
+		assertNull(compiled.evaluate(frames));
+	}
+
+	@Test
+	void testUnknownSlotFallsBackToDynamicOperation() {
+		CompiledExpression compiled = compiler.compile(add(width(), new PixelLiteral(2)));
+
+		assertTrue(compiled instanceof CompiledExpression.DynamicOperation);
+		assertNull(compiled.evaluate(frames));
+		frames[1][1] = new PixelLiteral(3);
+		assertEquals(new PixelLiteral(5), compiled.evaluate(frames));
+	}
+}
@@ -0,0 +1,37 @@
+package nl.han.ica.icss.transforms;
+
+import nl.han.ica.icss.Pipeline;
+import nl.han.ica.icss.ast.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VariableResolverTest {
+
+	@Test
+	void testReferencesPointAtIntroducingAssignment() {
+		Pipeline pipeline = new Pipeline();
+		pipeline.parseString("A := 1px; B := 2px; A := 3px; p { B := A; if[TRUE] { width: B; } else { height: Missing; } }");
+		AST ast = pipeline.getAST();
+		VariableResolver resolver = new VariableResolver();
+
+		resolver.apply(ast);
+
+		VariableAssignment globalA = (VariableAssignment) ast.root.body.get(0);
+		VariableAssignment reassignedA = (VariableAssignment) ast.root.body.get(2);
+		Stylerule rule = (Stylerule) ast.root.body.get(3);
+		VariableAssignment localB = (VariableAssignment) rule.body.get(0);
+		IfClause ifClause = (IfClause) rule.body.get(1);
+
+		assertEquals(0, globalA.depth);
+		assertEquals(0, globalA.slot);
+		assertEquals(0, reassignedA.slot);
+		assertEquals(2, resolver.getFrameSize(ast.root));
+		assertSame(globalA, ((VariableReference) localB.expression).assignment);
+		assertEquals(1, localB.depth);
+		assertEquals(0, localB.slot);
+		assertSame(localB, ((VariableReference) ((Declaration) ifClause.body.get(0)).expression).assignment);
+		assertNull(((VariableReference) ((Declaration) ifClause.elseClause.body.get(0)).expression).assignment);
+		assertEquals(0, resolver.getFrameSize(ifClause));
+	}
+}